@@ -0,0 +1,20 @@
+/**
+ * Finds the accessible rolls of one row of a {@link ByteGridSolver} grid.
+ * The scalar {@link ScalarKernel} always works; a Vector API version is
+ * picked up by {@link ByteGridSolver#loadKernel()} when it is available.
+ */
+interface AccessibilityKernel {
+
+    /**
+     * Marks the rolls of one row that have fewer than 4 adjacent rolls.
+     *
+     * @param cells the padded grid, one byte (0 or 1) per cell
+     * @param offset index of the row's first cell in {@code cells}
+     * @param stride distance between vertically adjacent cells
+     * @param cols number of cells in the row
+     * @param out receives 1 for accessible rolls and 0 otherwise
+     * @param outOffset index in {@code out} for the row's first cell
+     * @return the number of accessible rolls in the row
+     */
+    int markRow(byte[] cells, int offset, int stride, int cols, byte[] out, int outOffset);
+}
@@ -0,0 +1,264 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Solves many grid files in one JVM and writes one JSON object per file
+ * to the output as each finishes. Files are solved on a fixed pool of
+ * worker threads, and at most twice as many files as there are workers
+ * are in flight, so a directory of thousands of snapshots never queues
+ * up more than a handful. Every worker keeps one {@link Workspace} whose
+ * buffers only grow, so steady-state solving allocates next to nothing.
+ */
+final class BatchSolver {
+
+    private final int concurrency;
+    private final PrintStream out;
+    private final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+    BatchSolver(int concurrency, PrintStream out) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        }
+        this.concurrency = concurrency;
+        this.out = out;
+    }
+
+    /**
+     * Solves every regular file matched by the target, which is either a
+     * directory (its files, not recursively), a single file, or a glob
+     * such as {@code snapshots/**.txt}.
+     *
+     * A target that cannot be listed, such as a glob under a missing
+     * directory, is reported as one failed entry, like a missing file.
+     *
+     * @param target the directory, file or glob to solve
+     * @return the number of files that could not be solved
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    int run(String target) throws InterruptedException {
+        warmUp();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        Semaphore inFlight = new Semaphore(concurrency * 2);
+        AtomicInteger failures = new AtomicInteger();
+        try (Stream<Path> files = resolve(target)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                inFlight.acquire();
+                pool.execute(() -> {
+                    try {
+                        if (!solve(file)) {
+                            failures.incrementAndGet();
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } catch (IOException | UncheckedIOException e) {
+            Throwable cause = e instanceof UncheckedIOException ? e.getCause() : e;
+            out.println("{\"file\":" + json(target) + ",\"error\":" + json(String.valueOf(cause)) + "}");
+            failures.incrementAndGet();
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        return failures.get();
+    }
+
+    /**
+     * Solves a tiny grid once, so that loading the solver's classes is
+     * not timed as part of the first file.
+     */
+    private static void warmUp() {
+        byte[] text = "@@@\n@.@\n@@@\n".getBytes(StandardCharsets.US_ASCII);
+        Metrics.Span span = Metrics.begin("batch.warmup");
+        Workspace workspace = new Workspace();
+        workspace.solve(GridInput.of(ByteBuffer.wrap(text)));
+        span.end(workspace.part2);
+    }
+
+    private boolean solve(Path file) {
+        Workspace workspace = workspaces.get();
+        String name = json(file.toString());
+        try {
+            long start = System.nanoTime();
+            GridInput input = workspace.read(file);
+            long read = System.nanoTime();
+            Metrics.Span span = Metrics.begin("batch.solve");
+            workspace.solve(input);
+            span.end(workspace.part2);
+            long solved = System.nanoTime();
+            out.println(String.format(Locale.ROOT,
+                    "{\"file\":%s,\"rows\":%d,\"cols\":%d,\"part1\":%d,\"part2\":%d,"
+                            + "\"readMillis\":%.3f,\"solveMillis\":%.3f}",
+                    name, input.rows, input.cols, workspace.part1, workspace.part2,
+                    (read - start) / 1e6, (solved - read) / 1e6));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            out.println("{\"file\":" + name + ",\"error\":" + json(String.valueOf(e)) + "}");
+            return false;
+        }
+    }
+
+    /**
+     * Lists the files a batch target refers to.
+     */
+    static Stream<Path> resolve(String target) throws IOException {
+        int glob = indexOfAny(target, "*?[{");
+        if (glob < 0) {
+            Path path = Path.of(target);
+            if (Files.isDirectory(path)) {
+                return Files.list(path).filter(Files::isRegularFile);
+            }
+            return Stream.of(path);
+        }
+
+        // Walk from the deepest directory named before the first glob character
+        int separator = target.lastIndexOf('/', glob);
+        Path root = Path.of(separator < 0 ? "" : target.substring(0, separator + 1));
+        PathMatcher matcher = root.getFileSystem().getPathMatcher("glob:" + target);
+        return Files.walk(root)
+                .filter(path -> Files.isRegularFile(path) && matcher.matches(path));
+    }
+
+    private static int indexOfAny(String text, String chars) {
+        for (int i = 0; i < text.length(); i++) {
+            if (chars.indexOf(text.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static String json(String text) {
+        StringBuilder json = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /**
+     * Per-worker buffers: the file text, and a grid padded with one empty
+     * cell on every side so neighbours are read without bounds checks.
+     * Part 1 and part 2 come from the same worklist peel that
+     * {@link Result#solPart2} falls back to without the Vector API: the rolls
+     * queued by the initial scan are exactly the part 1 answer.
+     */
+    private static final class Workspace {
+
+        private ByteBuffer text = ByteBuffer.allocate(1 << 16);
+        private byte[] rolls = new byte[0];
+        private byte[] counts = new byte[0];
+        private int[] queue = new int[0];
+        int part1;
+        int part2;
+
+        /**
+         * Reads a file into the reused text buffer. The returned view is
+         * only valid until the next read.
+         */
+        GridInput read(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("Input too large to read: " + size + " bytes");
+                }
+                if (text.capacity() < size) {
+                    text = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE, Math.max(size, 2L * text.capacity())));
+                }
+                text.clear().limit((int) size);
+                while (text.hasRemaining()) {
+                    if (channel.read(text) < 0) {
+                        throw new EOFException("File shrank while reading: " + file);
+                    }
+                }
+                return GridInput.of(text.flip());
+            }
+        }
+
+        void solve(GridInput input) {
+            int stride = input.cols + 2;
+            int size = (input.rows + 2) * stride;
+            if (rolls.length < size) {
+                rolls = new byte[size];
+                counts = new byte[size];
+                queue = new int[size];
+            } else {
+                Arrays.fill(rolls, 0, size, (byte) 0);
+            }
+            for (int row = 0; row < input.rows; row++) {
+                int base = (row + 1) * stride + 1;
+                int length = input.length(row);
+                for (int col = 0; col < length; col++) {
+                    if (input.at(row, col) == '@') {
+                        rolls[base + col] = 1;
+                    }
+                }
+            }
+
+            // Count every roll's neighbours once and queue the accessible ones
+            int tail = 0;
+            for (int row = 1; row <= input.rows; row++) {
+                for (int i = row * stride + 1, end = i + input.cols; i < end; i++) {
+                    if (rolls[i] != 0) {
+                        int count = rolls[i - stride - 1] + rolls[i - stride] + rolls[i - stride + 1]
+                                + rolls[i - 1] + rolls[i + 1]
+                                + rolls[i + stride - 1] + rolls[i + stride] + rolls[i + stride + 1];
+                        counts[i] = (byte) count;
+                        if (count < 4) {
+                            queue[tail++] = i;
+                        }
+                    }
+                }
+            }
+            part1 = tail;
+
+            // Peel: each neighbour crosses below 4 at most once, so it is queued at most once
+            int head = 0;
+            while (head < tail) {
+                int i = queue[head++];
+                rolls[i] = 0;
+                tail = release(i - stride - 1, tail);
+                tail = release(i - stride, tail);
+                tail = release(i - stride + 1, tail);
+                tail = release(i - 1, tail);
+                tail = release(i + 1, tail);
+                tail = release(i + stride - 1, tail);
+                tail = release(i + stride, tail);
+                tail = release(i + stride + 1, tail);
+            }
+            part2 = tail;
+        }
+
+        private int release(int neighbour, int tail) {
+            if (rolls[neighbour] != 0 && --counts[neighbour] == 3) {
+                queue[tail++] = neighbour;
+            }
+            return tail;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+import java.util.Arrays;
+
+/**
+ * Bit-packed roll grid. Each row is stored in {@code words} consecutive
+ * longs, with column {@code c} at bit {@code c % 64} of word {@code c / 64},
+ * so a cell costs one bit instead of the two bytes of a {@code char}.
+ * Padding bits past the last column are always zero.
+ */
+final class Bitboard {
+
+    final int rows;
+    final int cols;
+    final int words;
+    final long[] bits;
+
+    Bitboard(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.words = (cols + 63) >>> 6;
+        this.bits = new long[rows * words];
+    }
+
+    /**
+     * Packs the given grid, treating every '@' as a roll. Shorter lines
+     * are padded with empty cells up to the widest line.
+     *
+     * @param input the grid to pack
+     * @return the packed grid
+     */
+    static Bitboard from(GridInput input) {
+        Bitboard board = new Bitboard(input.rows, input.cols);
+        for (int row = 0; row < input.rows; row++) {
+            int base = row * board.words;
+            int length = input.length(row);
+            for (int col = 0; col < length; col++) {
+                if (input.at(row, col) == '@') {
+                    board.bits[base + (col >>> 6)] |= 1L << col;
+                }
+            }
+        }
+        return board;
+    }
+
+    boolean isRoll(int row, int col) {
+        return (bits[row * words + (col >>> 6)] & 1L << col) != 0;
+    }
+
+    void clear(int row, int col) {
+        bits[row * words + (col >>> 6)] &= ~(1L << col);
+    }
+
+    /**
+     * Removes accessible rolls in synchronous rounds until none are left,
+     * in place. Each round only revisits the rows next to a removal of
+     * the round before. Removals are applied one row behind the row
+     * being decided, so every row still sees its neighbours as they were
+     * at the start of the round; the extra memory is two rows of masks
+     * and a flag per row.
+     *
+     * @param engine the engine name reported with each round
+     * @return the total number of rolls removed
+     */
+    int removeAll(String engine) {
+        long[] previous = new long[words];
+        long[] current = new long[words];
+        boolean[] dirty = new boolean[rows];
+        boolean[] next = new boolean[rows];
+        Arrays.fill(dirty, true);
+        int total = 0;
+        int round = 0;
+        while (true) {
+            int removed = 0;
+            long scanned = 0;
+            boolean pending = false;
+            for (int row = 0; row < rows; row++) {
+                if (!dirty[row]) {
+                    // Nothing below reads the previous row any more this round
+                    pending = applyRow(row - 1, previous, pending);
+                    continue;
+                }
+                scanned += cols;
+                int offset = row * words;
+                int above = row > 0 ? offset - words : -1;
+                int below = row + 1 < rows ? offset + words : -1;
+                int found = 0;
+                for (int w = 0; w < words; w++) {
+                    current[w] = accessibleWord(bits, above, offset, below, words, w);
+                    found += Long.bitCount(current[w]);
+                }
+                pending = applyRow(row - 1, previous, pending);
+                long[] swap = previous;
+                previous = current;
+                current = swap;
+                pending = found > 0;
+                if (found > 0) {
+                    removed += found;
+                    for (int near = Math.max(0, row - 1); near <= Math.min(rows - 1, row + 1); near++) {
+                        next[near] = true;
+                    }
+                }
+            }
+            applyRow(rows - 1, previous, pending);
+            if (removed == 0) {
+                return total;
+            }
+            total += removed;
+            Metrics.round(engine, ++round, removed, scanned);
+
+            boolean[] swap = dirty;
+            dirty = next;
+            next = swap;
+            Arrays.fill(next, false);
+        }
+    }
+
+    private boolean applyRow(int row, long[] masks, boolean pending) {
+        if (pending) {
+            int offset = row * words;
+            for (int w = 0; w < words; w++) {
+                bits[offset + w] &= ~masks[w];
+            }
+        }
+        return false;
+    }
+
+    Bitboard copy() {
+        Bitboard board = new Bitboard(rows, cols);
+        System.arraycopy(bits, 0, board.bits, 0, bits.length);
+        return board;
+    }
+
+    /**
+     * Counts the rolls that have fewer than 4 adjacent rolls.
+     *
+     * @return the number of accessible rolls
+     */
+    int countAccessible() {
+        return countAccessible(0, rows);
+    }
+
+    /**
+     * Counts the rolls in rows {@code [fromRow, toRow)} that have fewer
+     * than 4 adjacent rolls. Rows just outside the range are only read.
+     *
+     * @param fromRow the first row, inclusive
+     * @param toRow the last row, exclusive
+     * @return the number of accessible rolls in the range
+     */
+    int countAccessible(int fromRow, int toRow) {
+        return markAccessible(bits, fromRow, toRow, null);
+    }
+
+    /**
+     * Finds the accessible rolls of rows {@code [fromRow, toRow)} in the
+     * given cells, optionally writing the per-word masks to {@code out}.
+     *
+     * @param cells the packed rows to inspect, laid out like {@link #bits}
+     * @param fromRow the first row, inclusive
+     * @param toRow the last row, exclusive
+     * @param out receives the accessible masks at the same offsets, may be null
+     * @return the number of accessible rolls in the range
+     */
+    int markAccessible(long[] cells, int fromRow, int toRow, long[] out) {
+        int count = 0;
+        for (int row = fromRow; row < toRow; row++) {
+            int above = row > 0 ? (row - 1) * words : -1;
+            int below = row + 1 < rows ? (row + 1) * words : -1;
+            int offset = row * words;
+            for (int w = 0; w < words; w++) {
+                long mask = accessibleWord(cells, above, offset, below, words, w);
+                if (out != null) {
+                    out[offset + w] = mask;
+                }
+                count += Long.bitCount(mask);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Computes which rolls of one 64-cell word have fewer than 4 adjacent
+     * rolls, reading the surrounding words of a {@link Bitboard} layout.
+     *
+     * @param bits the packed rows
+     * @param above offset of the row above, or -1 if there is none
+     * @param row offset of the row itself
+     * @param below offset of the row below, or -1 if there is none
+     * @param words number of words per row
+     * @param w the word index within the row
+     * @return a mask of the accessible rolls in the word
+     */
+    static long accessibleWord(long[] bits, int above, int row, int below, int words, int w) {
+        long center = bits[row + w];
+        if (center == 0) {
+            return 0;
+        }
+        boolean hasWest = w > 0;
+        boolean hasEast = w + 1 < words;
+        long upWest = 0;
+        long up = 0;
+        long upEast = 0;
+        if (above >= 0) {
+            upWest = hasWest ? bits[above + w - 1] : 0;
+            up = bits[above + w];
+            upEast = hasEast ? bits[above + w + 1] : 0;
+        }
+        long downWest = 0;
+        long down = 0;
+        long downEast = 0;
+        if (below >= 0) {
+            downWest = hasWest ? bits[below + w - 1] : 0;
+            down = bits[below + w];
+            downEast = hasEast ? bits[below + w + 1] : 0;
+        }
+        return accessibleMask(upWest, up, upEast,
+                hasWest ? bits[row + w - 1] : 0, center, hasEast ? bits[row + w + 1] : 0,
+                downWest, down, downEast);
+    }
+
+    /**
+     * Computes which rolls of the word {@code center} have fewer than 4
+     * adjacent rolls, given the 3x3 block of words around it (0 for words
+     * outside the grid). The eight neighbour words are lined up with
+     * shifts and summed with bit-sliced adders, so all 64 cells are
+     * decided at once.
+     *
+     * @return a mask of the accessible rolls in {@code center}
+     */
+    static long accessibleMask(long upWest, long up, long upEast,
+            long west, long center, long east,
+            long downWest, long down, long downEast) {
+        if (center == 0) {
+            return 0;
+        }
+
+        // Row above: three neighbours summed into a ones bit and a twos bit
+        long upLeft = (up << 1) | (upWest >>> 63);
+        long upRight = (up >>> 1) | (upEast << 63);
+        long upOnes = up ^ upLeft ^ upRight;
+        long upTwos = (up & upLeft) | (upRight & (up ^ upLeft));
+
+        // Own row: only the two horizontal neighbours
+        long left = (center << 1) | (west >>> 63);
+        long right = (center >>> 1) | (east << 63);
+        long midOnes = left ^ right;
+        long midTwos = left & right;
+
+        // Row below: same as the row above
+        long downLeft = (down << 1) | (downWest >>> 63);
+        long downRight = (down >>> 1) | (downEast << 63);
+        long downOnes = down ^ downLeft ^ downRight;
+        long downTwos = (down & downLeft) | (downRight & (down ^ downLeft));
+
+        // Fold the three ones bits; the carry is worth two like the others
+        long onesCarry = (upOnes & midOnes) | (downOnes & (upOnes ^ midOnes));
+
+        // The ones column adds at most 1, so 4+ neighbours needs two twos
+        long atLeastFour = (upTwos & midTwos) | (downTwos & onesCarry)
+                | ((upTwos ^ midTwos) & (downTwos ^ onesCarry));
+        return center & ~atLeastFour;
+    }
+}
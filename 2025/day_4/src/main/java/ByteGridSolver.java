@@ -0,0 +1,136 @@
+import java.util.Arrays;
+
+/**
+ * Solvers over a byte-per-cell copy of the grid surrounded by an empty
+ * border, with the per-row work delegated to an {@link AccessibilityKernel}.
+ * Part 2 runs synchronous rounds and only revisits rows next to a row that
+ * changed in the previous round.
+ */
+final class ByteGridSolver {
+
+    // Kernels are stateless, so the one Vector API kernel is shared
+    private static final AccessibilityKernel VECTOR_KERNEL = vectorKernel();
+
+    final int rows;
+    final int cols;
+    private final int stride;
+    private final byte[] cells;
+    private final AccessibilityKernel kernel;
+
+    ByteGridSolver(GridInput input, AccessibilityKernel kernel) {
+        this.rows = input.rows;
+        this.cols = input.cols;
+        this.stride = cols + 2;
+        this.cells = new byte[(rows + 2) * stride];
+        this.kernel = kernel;
+        for (int row = 0; row < rows; row++) {
+            int offset = rowOffset(row);
+            int length = input.length(row);
+            for (int col = 0; col < length; col++) {
+                if (input.at(row, col) == '@') {
+                    cells[offset + col] = 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the Vector API kernel if its class was compiled and the
+     * {@code jdk.incubator.vector} module is present at run time, and the
+     * scalar kernel otherwise.
+     *
+     * @return the fastest available kernel
+     */
+    static AccessibilityKernel loadKernel() {
+        return VECTOR_KERNEL != null ? VECTOR_KERNEL : new ScalarKernel();
+    }
+
+    /**
+     * @return whether {@link #loadKernel()} returns the Vector API kernel
+     */
+    static boolean hasVectorKernel() {
+        return VECTOR_KERNEL != null;
+    }
+
+    private static AccessibilityKernel vectorKernel() {
+        try {
+            return (AccessibilityKernel) Class.forName("VectorKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the number of rolls with fewer than 4 adjacent rolls
+     */
+    int countAccessible() {
+        byte[] out = new byte[cols];
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            count += kernel.markRow(cells, rowOffset(row), stride, cols, out, 0);
+        }
+        return count;
+    }
+
+    /**
+     * Removes accessible rolls in synchronous rounds until none are left.
+     * The solver's grid is consumed in the process.
+     *
+     * @return the total number of rolls removed
+     */
+    int removeAll() {
+        return removeAll("simd");
+    }
+
+    /**
+     * @param engine the engine name reported with each round
+     * @see #removeAll()
+     */
+    int removeAll(String engine) {
+        byte[] removed = new byte[cells.length];
+        boolean[] dirty = new boolean[rows];
+        boolean[] changed = new boolean[rows];
+        Arrays.fill(dirty, true);
+        int totalRemoved = 0;
+
+        int round = 0;
+        while (true) {
+            int removedThisRound = 0;
+            long scanned = 0;
+            for (int row = 0; row < rows; row++) {
+                changed[row] = false;
+                if (dirty[row]) {
+                    int offset = rowOffset(row);
+                    int count = kernel.markRow(cells, offset, stride, cols, removed, offset);
+                    changed[row] = count > 0;
+                    removedThisRound += count;
+                    scanned += cols;
+                }
+            }
+            if (removedThisRound == 0) {
+                return totalRemoved;
+            }
+            totalRemoved += removedThisRound;
+            Metrics.round(engine, ++round, removedThisRound, scanned);
+
+            // Apply the round only after every row has been decided
+            for (int row = 0; row < rows; row++) {
+                if (changed[row]) {
+                    int offset = rowOffset(row);
+                    for (int i = offset; i < offset + cols; i++) {
+                        cells[i] = (byte) (cells[i] & ~removed[i]);
+                    }
+                }
+            }
+            for (int row = 0; row < rows; row++) {
+                dirty[row] = changed[row]
+                        || (row > 0 && changed[row - 1])
+                        || (row + 1 < rows && changed[row + 1]);
+            }
+        }
+    }
+
+    private int rowOffset(int row) {
+        return (row + 1) * stride + 1;
+    }
+}
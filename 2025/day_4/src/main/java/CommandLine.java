@@ -0,0 +1,183 @@
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The options of {@link Result#main}. Parsing rejects unknown flags, flags
+ * given twice, and combinations where one flag would silently override or
+ * ignore another, such as two engines at once or {@code --band-size}
+ * without {@code --parallel}.
+ */
+final class CommandLine {
+
+    static final String USAGE = """
+            Usage: java --add-modules jdk.incubator.vector -cp target/classes Result [options]
+
+            Solves input/input.txt, prints both parts and opens the visualization.
+
+            Modes, at most one (by default part 1 runs on a bitboard and part 2
+            through the removal timeline that the visualization replays, or with
+            --headless on large grids the Vector API kernel when it is available):
+              --parallel             fork-join row bands over a bitboard
+              --simd                 byte grid with the Vector API kernel when it is available
+              --sparse               64x64 tiles, skipping empty ones
+              --stream               bounded memory, never loads the grid
+              --rule=SPEC            any access rule, e.g. von-neumann,radius=2,threshold=5,edge=wrap
+              --workers=N            N worker processes, one horizontal stripe each
+              --snapshot=FILE        solve a binary snapshot instead of the input
+              --write-snapshot=FILE  write the input as a binary snapshot and exit
+              --batch=TARGET         solve every file of a directory, a file or a glob such as
+                                     'grids/**.txt', printing one JSON line per file
+            Only the default mode and --parallel, --simd and --sparse show or export rounds.
+
+            Options:
+              --headless             do not open the visualization
+              --export=TARGET        write every round as PNG files into the directory TARGET, or
+                                     as an animated GIF if it ends in .gif, instead of opening
+                                     the visualization
+              --history=FILE         write the rolls removed per round as CSV
+              --cell-size=N          pixels per cell in exported frames (with --export, default 5)
+              --band-size=N          rows per fork-join task (with --parallel, default 128)
+              --threads=N            threads for --batch, --parallel and --export (default: all cores)
+              --help                 show this help
+            """;
+
+    boolean help;
+    boolean parallel;
+    boolean stream;
+    boolean simd;
+    boolean sparse;
+    boolean headless;
+    String batch;
+    int workers;
+    // Set when started by a StripeCluster coordinator
+    int workerPort = -1;
+    Rule rule;
+    Path snapshot;
+    Path writeSnapshot;
+    Path export;
+    Path history;
+    int cellSize = WarehouseVisualization.CELL_SIZE;
+    int threads = Runtime.getRuntime().availableProcessors();
+    int bandSize = ParallelSolver.DEFAULT_BAND_SIZE;
+
+    private CommandLine() {
+    }
+
+    /**
+     * Parses and checks the arguments.
+     *
+     * @param args the command line arguments
+     * @return the options
+     * @throws IllegalArgumentException with a message for the user if the
+     *     arguments are malformed or do not make sense together
+     */
+    static CommandLine parse(String... args) {
+        CommandLine options = new CommandLine();
+        Set<String> given = new HashSet<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String flag = equals < 0 ? arg : arg.substring(0, equals);
+            String value = equals < 0 ? null : arg.substring(equals + 1);
+            if (!given.add(flag)) {
+                throw new IllegalArgumentException(flag + " given twice");
+            }
+            switch (flag) {
+                case "--help", "-h" -> options.help = true;
+                case "--parallel" -> options.parallel = true;
+                case "--stream" -> options.stream = true;
+                case "--simd" -> options.simd = true;
+                case "--sparse" -> options.sparse = true;
+                case "--headless" -> options.headless = true;
+                case "--export" -> options.export = Path.of(required(flag, value));
+                case "--history" -> options.history = Path.of(required(flag, value));
+                case "--snapshot" -> options.snapshot = Path.of(required(flag, value));
+                case "--write-snapshot" -> options.writeSnapshot = Path.of(required(flag, value));
+                case "--batch" -> options.batch = required(flag, value);
+                case "--rule" -> options.rule = Rule.parse(required(flag, value));
+                case "--cell-size" -> options.cellSize = positive(flag, value);
+                case "--workers" -> options.workers = positive(flag, value);
+                case "--worker" -> options.workerPort = positive(flag, value);
+                case "--threads" -> options.threads = positive(flag, value);
+                case "--band-size" -> options.bandSize = positive(flag, value);
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            if (value != null && isSwitch(flag)) {
+                throw new IllegalArgumentException(flag + " takes no value");
+            }
+        }
+        options.check(given);
+        return options;
+    }
+
+    private static boolean isSwitch(String flag) {
+        return switch (flag) {
+            case "--help", "-h", "--parallel", "--stream", "--simd", "--sparse", "--headless" -> true;
+            default -> false;
+        };
+    }
+
+    private static String required(String flag, String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException(flag + " needs a value, e.g. " + flag + "=...");
+        }
+        return value;
+    }
+
+    private static int positive(String flag, String value) {
+        int number;
+        try {
+            number = Integer.parseInt(required(flag, value));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(flag + " needs a whole number: " + value);
+        }
+        if (number < 1) {
+            throw new IllegalArgumentException(flag + " must be at least 1: " + number);
+        }
+        return number;
+    }
+
+    /**
+     * Rejects combinations in which a flag would not take effect.
+     */
+    private void check(Set<String> given) {
+        if (help) {
+            return;
+        }
+        if (workerPort > 0 && given.size() > 1) {
+            throw new IllegalArgumentException("--worker is started by --workers and takes no other options");
+        }
+
+        List<String> modes = new ArrayList<>();
+        for (String mode : List.of("--parallel", "--simd", "--sparse", "--stream", "--rule", "--workers",
+                "--snapshot", "--write-snapshot", "--batch")) {
+            if (given.contains(mode)) {
+                modes.add(mode);
+            }
+        }
+        if (modes.size() > 1) {
+            throw new IllegalArgumentException("Pick one mode, not " + String.join(" and ", modes));
+        }
+        String mode = modes.isEmpty() ? null : modes.get(0);
+        boolean replays = mode == null || parallel || simd || sparse;
+
+        for (String output : List.of("--export", "--history")) {
+            if (given.contains(output) && !replays) {
+                throw new IllegalArgumentException(output + " replays the rounds, which " + mode + " does not record");
+            }
+        }
+        requires(given, "--band-size", "--parallel");
+        requires(given, "--cell-size", "--export");
+        if (given.contains("--threads") && !parallel && batch == null && export == null) {
+            throw new IllegalArgumentException("--threads only applies to --batch, --parallel and --export");
+        }
+    }
+
+    private static void requires(Set<String> given, String flag, String needed) {
+        if (given.contains(flag) && !given.contains(needed)) {
+            throw new IllegalArgumentException(flag + " only applies to " + needed);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Roll counts of a grid aggregated over square blocks, one level per
+ * power of two. Level {@code k} counts the rolls in each
+ * {@code 2^k x 2^k} block, up to a single block covering the whole grid,
+ * so a zoomed-out view can read one count per screen pixel instead of
+ * visiting every cell. Adding or removing a roll updates one count per
+ * level.
+ */
+final class DensityPyramid {
+
+    private final int rows;
+    private final int cols;
+    // Index 0 would be the cells themselves and stays null
+    private final int[][] counts;
+
+    /**
+     * Counts the rolls of a timeline's state after the given round.
+     *
+     * @param timeline the solve to read the cells from
+     * @param round the round to count, 0 for the initial state
+     */
+    DensityPyramid(RemovalTimeline timeline, int round) {
+        this.rows = timeline.rows;
+        this.cols = timeline.cols;
+        int levels = 1;
+        while (1 << levels < Math.max(rows, cols)) {
+            levels++;
+        }
+        this.counts = new int[levels + 1][];
+        for (int level = 1; level <= levels; level++) {
+            counts[level] = new int[width(level) * height(level)];
+        }
+
+        int[] first = counts[1];
+        int width = width(1);
+        for (int row = 0; row < rows; row++) {
+            int base = (row >>> 1) * width;
+            for (int col = 0; col < cols; col++) {
+                if (timeline.isRoll(row, col, round)) {
+                    first[base + (col >>> 1)]++;
+                }
+            }
+        }
+        // Each further level sums 2x2 blocks of the one below
+        for (int level = 2; level <= levels; level++) {
+            int[] below = counts[level - 1];
+            int belowWidth = width(level - 1);
+            int[] current = counts[level];
+            width = width(level);
+            for (int y = 0; y < height(level - 1); y++) {
+                for (int x = 0; x < belowWidth; x++) {
+                    current[(y >>> 1) * width + (x >>> 1)] += below[y * belowWidth + x];
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the coarsest level, whose single block covers the grid
+     */
+    int levels() {
+        return counts.length - 1;
+    }
+
+    /**
+     * @param level a level from 1 to {@link #levels()}
+     * @return the number of blocks across the grid
+     */
+    int width(int level) {
+        return (cols + (1 << level) - 1) >> level;
+    }
+
+    int height(int level) {
+        return (rows + (1 << level) - 1) >> level;
+    }
+
+    /**
+     * @return the number of rolls in block {@code (x, y)} of the level
+     */
+    int count(int level, int x, int y) {
+        return counts[level][y * width(level) + x];
+    }
+
+    /**
+     * @return the number of grid cells in block {@code (x, y)}, which is
+     *     less than a full block along the right and bottom edges
+     */
+    int area(int level, int x, int y) {
+        int size = 1 << level;
+        return Math.min(size, cols - x * size) * Math.min(size, rows - y * size);
+    }
+
+    /**
+     * Picks the finest level whose blocks are at least one pixel wide.
+     *
+     * @param scale pixels per cell, below 1
+     * @return a level from 1 to {@link #levels()}
+     */
+    int levelFor(double scale) {
+        int level = 1;
+        while (level < levels() && (1 << level) * scale < 1) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Records a roll added to or removed from a cell.
+     *
+     * @param delta +1 for an added roll, -1 for a removed one
+     */
+    void update(int row, int col, int delta) {
+        for (int level = 1; level < counts.length; level++) {
+            counts[level][(row >> level) * width(level) + (col >> level)] += delta;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Renders every round of a {@link RemovalTimeline} offscreen with the
+ * shelf panel's colours, and writes the frames as numbered PNG files or
+ * as one looping animated GIF. Frame {@code k} shows the shelf after
+ * {@code k} rounds, from the initial grid to the final one.
+ *
+ * Frames only read the timeline, so they are rendered on a pool of
+ * worker threads; PNG frames are also encoded there. A GIF is a single
+ * sequential stream, so its frames are appended in order while the
+ * following ones are still being rendered.
+ */
+final class FrameExporter {
+
+    private static final IndexColorModel COLOURS = ShelfColours.indexed();
+
+    private final RemovalTimeline timeline;
+    private final int cellSize;
+    private final int threads;
+
+    FrameExporter(RemovalTimeline timeline, int cellSize, int threads) {
+        if (cellSize < 1 || threads < 1) {
+            throw new IllegalArgumentException("Cell size and threads must be at least 1");
+        }
+        this.timeline = timeline;
+        this.cellSize = cellSize;
+        this.threads = threads;
+    }
+
+    int frameCount() {
+        return timeline.rounds() + 1;
+    }
+
+    /**
+     * Writes all frames. A target ending in ".gif" becomes an animated
+     * GIF; any other target is a directory that receives one PNG per
+     * round, named {@code round-0000.png} onwards.
+     *
+     * @param target the GIF file or PNG directory
+     * @return the number of frames written
+     * @throws IOException if a frame cannot be written
+     */
+    int export(Path target) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            if (target.toString().toLowerCase(Locale.ROOT).endsWith(".gif")) {
+                writeGif(target, pool);
+            } else {
+                writePngs(target, pool);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return frameCount();
+    }
+
+    private void writePngs(Path directory, ExecutorService pool) throws IOException {
+        Files.createDirectories(directory);
+        List<Future<?>> written = new ArrayList<>();
+        for (int round = 0; round < frameCount(); round++) {
+            Path file = directory.resolve(String.format("round-%04d.png", round));
+            int frame = round;
+            written.add(pool.submit(() -> {
+                if (!ImageIO.write(render(frame), "png", file.toFile())) {
+                    throw new IOException("No PNG writer available");
+                }
+                return null;
+            }));
+        }
+        for (Future<?> frame : written) {
+            await(frame);
+        }
+    }
+
+    private void writeGif(Path file, ExecutorService pool) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        try (OutputStream stream = Files.newOutputStream(file);
+             ImageOutputStream out = ImageIO.createImageOutputStream(stream)) {
+            writer.setOutput(out);
+            writer.prepareWriteSequence(gifStreamMetadata(writer));
+
+            // Keep a bounded window of frames rendering ahead of the writer
+            Deque<Future<BufferedImage>> rendering = new ArrayDeque<>();
+            int next = 0;
+            for (int round = 0; round < frameCount(); round++) {
+                while (next < frameCount() && rendering.size() < threads * 2) {
+                    int frame = next++;
+                    rendering.add(pool.submit(() -> render(frame)));
+                }
+                BufferedImage image = await(rendering.poll());
+                writer.writeToSequence(new IIOImage(image, null, gifMetadata(writer, image, round == 0)), null);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Renders the shelf after the given number of rounds, each cell
+     * drawn as a {@code cellSize} square.
+     */
+    BufferedImage render(int round) {
+        int rows = timeline.rows;
+        int cols = timeline.cols;
+        int width = Math.max(cols, 1) * cellSize;
+        BufferedImage image = new BufferedImage(width, Math.max(rows, 1) * cellSize,
+                BufferedImage.TYPE_BYTE_INDEXED, COLOURS);
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        byte[] line = new byte[width];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                boolean roll = timeline.isRoll(row, col, round);
+                byte index = (byte) ShelfColours.index(roll, roll ? timeline.adjacentRolls(row, col, round) : 0);
+                Arrays.fill(line, col * cellSize, (col + 1) * cellSize, index);
+            }
+            for (int y = 0; y < cellSize; y++) {
+                System.arraycopy(line, 0, pixels, (row * cellSize + y) * width, width);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Stream metadata whose global colour table, and so the background
+     * colour, is the shelf palette rather than the writer's default.
+     */
+    private static IIOMetadata gifStreamMetadata(ImageWriter writer) throws IOException {
+        IIOMetadata metadata = writer.getDefaultStreamMetadata(null);
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+        // GIF colour tables have a power of two size; unused entries stay black
+        IIOMetadataNode table = child(root, "GlobalColorTable");
+        int size = Integer.highestOneBit(COLOURS.getMapSize() - 1) << 1;
+        table.setAttribute("sizeOfGlobalColorTable", Integer.toString(size));
+        table.setAttribute("backgroundColorIndex", "0");
+        table.setAttribute("sortFlag", "FALSE");
+        while (table.hasChildNodes()) {
+            table.removeChild(table.getFirstChild());
+        }
+        for (int i = 0; i < size; i++) {
+            IIOMetadataNode entry = new IIOMetadataNode("ColorTableEntry");
+            int rgb = i < COLOURS.getMapSize() ? COLOURS.getRGB(i) : 0;
+            entry.setAttribute("index", Integer.toString(i));
+            entry.setAttribute("red", Integer.toString(rgb >>> 16 & 0xFF));
+            entry.setAttribute("green", Integer.toString(rgb >>> 8 & 0xFF));
+            entry.setAttribute("blue", Integer.toString(rgb & 0xFF));
+            table.appendChild(entry);
+        }
+        metadata.setFromTree(format, root);
+        return metadata;
+    }
+
+    /**
+     * Frame metadata: the live animation's default delay, no
+     * transparency, and on the first frame a loop-forever extension.
+     */
+    private static IIOMetadata gifMetadata(ImageWriter writer, BufferedImage image, boolean first)
+            throws IOException {
+        IIOMetadata metadata = writer.getDefaultImageMetadata(new ImageTypeSpecifier(image), null);
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+        IIOMetadataNode control = child(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("transparentColorIndex", "0");
+        control.setAttribute("delayTime", Integer.toString(WarehouseVisualization.ANIMATION_DELAY / 10));
+
+        if (first) {
+            IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            loop.setUserObject(new byte[] {1, 0, 0});
+            child(root, "ApplicationExtensions").appendChild(loop);
+        }
+        metadata.setFromTree(format, root);
+        return metadata;
+    }
+
+    private static IIOMetadataNode child(IIOMetadataNode parent, String name) {
+        for (int i = 0; i < parent.getLength(); i++) {
+            if (parent.item(i).getNodeName().equals(name)) {
+                return (IIOMetadataNode) parent.item(i);
+            }
+        }
+        IIOMetadataNode node = new IIOMetadataNode(name);
+        parent.appendChild(node);
+        return node;
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while exporting frames");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Failed to render a frame", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generator of synthetic grids, so that benchmarks can run on
+ * reproducible inputs of any size.
+ */
+final class GridGenerator {
+
+    private GridGenerator() {
+    }
+
+    /**
+     * Generates a grid where every cell independently holds a roll with the
+     * given probability.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param density probability of a cell holding a roll, in [0, 1]
+     * @param seed the random seed
+     * @return the grid as text with "\n" line endings
+     */
+    static byte[] random(int rows, int cols, double density, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        byte[] text = new byte[rows * (cols + 1)];
+        int index = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                text[index++] = random.nextDouble() < density ? (byte) '@' : (byte) '.';
+            }
+            text[index++] = '\n';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,138 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Read-only view of a grid file. The file is memory-mapped and scanned once
+ * for line boundaries; cells are then read straight from the mapped bytes,
+ * so every consumer shares the same parse without copying the text.
+ * Both "\n" and "\r\n" line endings are accepted, and blank lines at the
+ * start and end of the file are ignored.
+ */
+final class GridInput {
+
+    final int rows;
+    final int cols;
+    private final ByteBuffer data;
+    private final int[] lineStarts;
+    private final int[] lineLengths;
+
+    private GridInput(ByteBuffer data, int[] lineStarts, int[] lineLengths, int rows) {
+        this.data = data;
+        this.lineStarts = lineStarts;
+        this.lineLengths = lineLengths;
+        this.rows = rows;
+        int widest = 0;
+        for (int row = 0; row < rows; row++) {
+            widest = Math.max(widest, lineLengths[row]);
+        }
+        this.cols = widest;
+    }
+
+    /**
+     * Memory-maps the given file and indexes its lines.
+     *
+     * @param path the grid file
+     * @return a view of the grid
+     * @throws IOException if the file cannot be read or is too large to map
+     */
+    static GridInput map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Input too large to map: " + size + " bytes");
+            }
+            Metrics.InputReadEvent event = Metrics.recording() ? new Metrics.InputReadEvent() : null;
+            long start = Metrics.ENABLED ? System.nanoTime() : 0;
+            if (event != null) {
+                event.begin();
+            }
+            GridInput input = of(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            if (Metrics.ENABLED) {
+                Metrics.time("input", System.nanoTime() - start);
+            }
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.path = path.toString();
+                    event.bytes = size;
+                    event.rows = input.rows;
+                    event.cols = input.cols;
+                    event.commit();
+                }
+            }
+            return input;
+        }
+    }
+
+    /**
+     * Indexes the lines of an in-memory grid.
+     *
+     * @param data the grid text, from position 0 to the limit
+     * @return a view of the grid
+     */
+    static GridInput of(ByteBuffer data) {
+        int limit = data.limit();
+        int[] starts = new int[16];
+        int[] lengths = new int[16];
+        int rows = 0;
+        int nonBlankRows = 0;
+        int start = 0;
+        while (start < limit) {
+            int end = start;
+            while (end < limit && data.get(end) != '\n') {
+                end++;
+            }
+            int length = end - start;
+            if (length > 0 && data.get(end - 1) == '\r') {
+                length--;
+            }
+            // Skip blank lines before the first row
+            if (length > 0 || rows > 0) {
+                if (rows == starts.length) {
+                    starts = Arrays.copyOf(starts, rows * 2);
+                    lengths = Arrays.copyOf(lengths, rows * 2);
+                }
+                starts[rows] = start;
+                lengths[rows] = length;
+                rows++;
+                if (length > 0) {
+                    nonBlankRows = rows;
+                }
+            }
+            start = end + 1;
+        }
+        // Drop blank lines after the last row
+        return new GridInput(data, starts, lengths, nonBlankRows);
+    }
+
+    int length(int row) {
+        return lineLengths[row];
+    }
+
+    byte at(int row, int col) {
+        return data.get(lineStarts[row] + col);
+    }
+
+    /**
+     * Copies the grid into a mutable {@code rows x cols} array. Shorter
+     * lines are padded with '.'.
+     *
+     * @return a fresh character grid
+     */
+    char[][] toCharGrid() {
+        char[][] grid = new char[rows][cols];
+        for (int row = 0; row < rows; row++) {
+            int length = lineLengths[row];
+            int offset = lineStarts[row];
+            for (int col = 0; col < length; col++) {
+                grid[row][col] = (char) data.get(offset + col);
+            }
+            Arrays.fill(grid[row], length, cols, '.');
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,182 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary snapshot of a grid, written once from the text input and
+ * memory-mapped on later runs so startup skips parsing entirely. Part 1
+ * reads the packed rows straight from the mapping, so loading it costs
+ * the page-in and one checksum pass over the pages just read. Part 2
+ * removes rolls, so it first copies the rows into a heap {@link Bitboard}.
+ *
+ * Layout, little-endian: the magic "AOC25D4S", a version and a flags
+ * int, the rows and columns, and a CRC32C of everything after the
+ * 32-byte header followed by the 24 header bytes before the checksum.
+ * Then the rolls packed exactly like {@link Bitboard} rows. No flags are defined, so the flags int is always 0.
+ *
+ * Neighbour counts are not stored. The bitboard decides 64 cells at a
+ * time from the nine words around them, which is faster than reading 64
+ * count bytes, so stored counts would only make the file nine times larger.
+ */
+final class GridSnapshot {
+
+    private static final long MAGIC = 0x5334443532434F41L; // "AOC25D4S" read little-endian
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int CHECKSUM_OFFSET = 24;
+    private static final int CHUNK_BYTES = 1 << 20;
+
+    final int rows;
+    final int cols;
+    private final int words;
+    private final LongBuffer packed;
+
+    private GridSnapshot(int rows, int cols, LongBuffer packed) {
+        this.rows = rows;
+        this.cols = cols;
+        this.words = (cols + 63) >>> 6;
+        this.packed = packed;
+    }
+
+    /**
+     * Packs a grid and writes it as a snapshot.
+     *
+     * @param input the grid to write
+     * @param path the snapshot file to create or replace
+     * @throws IOException if the file cannot be written
+     */
+    static void write(GridInput input, Path path) throws IOException {
+        Bitboard board = Bitboard.from(input);
+        CRC32C checksum = new CRC32C();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.position(HEADER_BYTES);
+            for (long word : board.bits) {
+                if (!chunk.hasRemaining()) {
+                    flush(channel, chunk, checksum);
+                }
+                chunk.putLong(word);
+            }
+            flush(channel, chunk, checksum);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                    .putLong(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(0)
+                    .putInt(board.rows)
+                    .putInt(board.cols);
+            checksum.update(header.array(), 0, CHECKSUM_OFFSET);
+            header.putLong(checksum.getValue()).flip();
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer chunk, CRC32C checksum) throws IOException {
+        chunk.flip();
+        checksum.update(chunk.duplicate());
+        while (chunk.hasRemaining()) {
+            channel.write(chunk);
+        }
+        chunk.clear();
+    }
+
+    /**
+     * Maps a snapshot and verifies its header and checksum. The mapping
+     * stays valid after the file is closed.
+     *
+     * @param path the snapshot to load
+     * @return the loaded snapshot
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    static GridSnapshot map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to map: " + size + " bytes");
+            }
+            if (size < HEADER_BYTES) {
+                throw new IOException("Not a grid snapshot: " + path);
+            }
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            if (data.getLong(0) != MAGIC) {
+                throw new IOException("Not a grid snapshot: " + path);
+            }
+            if (data.getInt(8) != VERSION) {
+                throw new IOException("Unsupported snapshot version " + data.getInt(8) + ": " + path);
+            }
+            if (data.getInt(12) != 0) {
+                throw new IOException("Unsupported snapshot flags " + data.getInt(12) + ": " + path);
+            }
+            int rows = data.getInt(16);
+            int cols = data.getInt(20);
+            if (rows < 0 || cols < 0) {
+                throw new IOException("Corrupt grid snapshot header, " + rows + "x" + cols + ": " + path);
+            }
+            // In long, so a corrupt header cannot overflow the size check; once the size matches,
+            // the file's size bounds the board
+            long bitsBytes = 8L * rows * ((cols + 63L) >>> 6);
+            if (size != HEADER_BYTES + bitsBytes) {
+                throw new IOException("Grid snapshot size does not match its header: " + path);
+            }
+
+            CRC32C checksum = new CRC32C();
+            checksum.update(data.slice(HEADER_BYTES, (int) (size - HEADER_BYTES)));
+            checksum.update(data.slice(0, CHECKSUM_OFFSET));
+            if (checksum.getValue() != data.getLong(CHECKSUM_OFFSET)) {
+                throw new IOException("Grid snapshot checksum mismatch: " + path);
+            }
+
+            LongBuffer packed = data.slice(HEADER_BYTES, (int) bitsBytes).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            return new GridSnapshot(rows, cols, packed);
+        }
+    }
+
+    /**
+     * Counts the rolls that have fewer than 4 adjacent rolls, reading the
+     * mapped rows into a window of three rows at a time.
+     *
+     * @return the number of accessible rolls
+     */
+    int countAccessible() {
+        long[] window = new long[3 * words];
+        if (rows > 0) {
+            packed.get(0, window, 0, words);
+        }
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            int below = -1;
+            if (row + 1 < rows) {
+                below = (row + 1) % 3 * words;
+                packed.get((row + 1) * words, window, below, words);
+            }
+            int above = row > 0 ? (row - 1) % 3 * words : -1;
+            int offset = row % 3 * words;
+            for (int w = 0; w < words; w++) {
+                count += Long.bitCount(Bitboard.accessibleWord(window, above, offset, below, words, w));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Solves part 2 on a bit-packed copy of the snapshot with the same
+     * bit-sliced rounds as part 1, so it needs no memory per cell beyond
+     * the board itself. The mapping is left as it is.
+     *
+     * @return the total number of rolls removed
+     */
+    int removeAll() {
+        Bitboard board = new Bitboard(rows, cols);
+        packed.get(0, board.bits);
+        return board.removeAll("snapshot");
+    }
+}
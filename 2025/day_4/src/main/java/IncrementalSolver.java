@@ -0,0 +1,399 @@
+import java.util.Arrays;
+
+/**
+ * Long-lived solver for interactive what-if edits. Rolls can be added
+ * and removed one at a time, and both answers are kept up to date.
+ *
+ * Part 1 follows from the neighbour counts, which an edit only changes
+ * for the 8 cells around it. Part 2 relies on the rolls that are never
+ * removed being the 4-core of the roll adjacency graph: the largest set
+ * in which every roll has at least 4 neighbours from the same set. The
+ * answer is the rolls outside it, whatever the removal order.
+ *
+ * To keep edits local, every roll carries its core number capped at 4,
+ * the largest {@code k <= 4} such that it belongs to the k-core. An edit
+ * is applied as one adjacency edge at a time, and an edge can only move
+ * core numbers by one, and only for rolls whose core number equals the
+ * lower one of its two ends and that are connected to that end through
+ * rolls of the same core number. Insertions also skip rolls that lack
+ * enough neighbours of at least that level to ever rise (Sariyuce et al.,
+ * "Streaming algorithms for k-core decomposition", VLDB 2013).
+ */
+final class IncrementalSolver {
+
+    private static final int CORE = 4;
+
+    final int rows;
+    final int cols;
+    private final int stride;
+    private final int[] offsets;
+    // Per padded cell: roll present, roll neighbours, capped core number
+    private final byte[] roll;
+    private final byte[] count;
+    private final byte[] level;
+    // Scratch for edge insertions, cleared again after each use
+    private final byte[] support;
+    private final boolean[] visited;
+    private final boolean[] candidate;
+    private int[] worklist = new int[64];
+    private int[] region = new int[64];
+    private int[] evicted = new int[64];
+    // The roll being added or removed only has its first `linked` edges
+    private int pending = -1;
+    private int linked;
+    private int rolls;
+    private int accessible;
+    private int coreSize;
+
+    IncrementalSolver(GridInput input) {
+        this.rows = input.rows;
+        this.cols = input.cols;
+        this.stride = cols + 2;
+        // Opposite directions sit at mirrored positions: offsets[7 - k] == -offsets[k]
+        this.offsets = new int[] {-stride - 1, -stride, -stride + 1, -1, 1, stride - 1, stride, stride + 1};
+        int size = (rows + 2) * stride;
+        this.roll = new byte[size];
+        this.count = new byte[size];
+        this.level = new byte[size];
+        this.support = new byte[size];
+        this.visited = new boolean[size];
+        this.candidate = new boolean[size];
+
+        for (int row = 0; row < rows; row++) {
+            int length = input.length(row);
+            for (int col = 0; col < length; col++) {
+                if (input.at(row, col) == '@') {
+                    int i = index(row, col);
+                    roll[i] = 1;
+                    rolls++;
+                    for (int offset : offsets) {
+                        count[i + offset]++;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (roll[i] != 0 && count[i] < 4) {
+                accessible++;
+            }
+        }
+        decompose();
+    }
+
+    /**
+     * @return the number of rolls with fewer than 4 adjacent rolls
+     */
+    int part1() {
+        return accessible;
+    }
+
+    /**
+     * @return the number of rolls that repeated removal would clear
+     */
+    int part2() {
+        return rolls - coreSize;
+    }
+
+    boolean isRoll(int row, int col) {
+        return roll[index(row, col)] != 0;
+    }
+
+    /**
+     * @return whether the roll at the given cell would be cleared in part 2
+     */
+    boolean isRemovable(int row, int col) {
+        int i = index(row, col);
+        return roll[i] != 0 && level[i] < CORE;
+    }
+
+    /**
+     * Puts a roll on an empty cell.
+     *
+     * @return false if the cell already held a roll
+     */
+    boolean addRoll(int row, int col) {
+        int i = index(row, col);
+        if (roll[i] != 0) {
+            return false;
+        }
+        roll[i] = 1;
+        rolls++;
+        if (count[i] < 4) {
+            accessible++;
+        }
+        for (int offset : offsets) {
+            int neighbour = i + offset;
+            if (++count[neighbour] == 4 && roll[neighbour] != 0) {
+                accessible--;
+            }
+        }
+
+        // The new roll starts isolated at level 0 and gains its edges one by one
+        level[i] = 0;
+        pending = i;
+        for (int k = 0; k < offsets.length; k++) {
+            linked = k + 1;
+            if (roll[i + offsets[k]] != 0) {
+                insertEdge(i, i + offsets[k]);
+            }
+        }
+        pending = -1;
+        return true;
+    }
+
+    /**
+     * Takes the roll off a cell.
+     *
+     * @return false if the cell held no roll
+     */
+    boolean removeRoll(int row, int col) {
+        int i = index(row, col);
+        if (roll[i] == 0) {
+            return false;
+        }
+
+        // Drop the edges one by one until the roll is isolated at level 0
+        pending = i;
+        for (int k = offsets.length - 1; k >= 0; k--) {
+            linked = k;
+            if (roll[i + offsets[k]] != 0) {
+                deleteEdge(i, i + offsets[k]);
+            }
+        }
+        pending = -1;
+
+        roll[i] = 0;
+        rolls--;
+        if (count[i] < 4) {
+            accessible--;
+        }
+        for (int offset : offsets) {
+            int neighbour = i + offset;
+            if (--count[neighbour] == 3 && roll[neighbour] != 0) {
+                accessible++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes every capped core number from scratch by peeling rolls
+     * with fewer than k remaining neighbours, for k = 1 up to 4.
+     */
+    private void decompose() {
+        byte[] degree = support;
+        for (int i = 0; i < roll.length; i++) {
+            degree[i] = roll[i] != 0 ? count[i] : 0;
+            level[i] = (byte) (roll[i] != 0 ? CORE : 0);
+        }
+        coreSize = rolls;
+        for (int k = 1; k <= CORE; k++) {
+            int tail = 0;
+            for (int i = 0; i < roll.length; i++) {
+                if (level[i] == CORE && roll[i] != 0 && degree[i] < k) {
+                    level[i] = (byte) (k - 1);
+                    tail = push(tail, i);
+                }
+            }
+            for (int head = 0; head < tail; head++) {
+                int i = worklist[head];
+                coreSize--;
+                for (int offset : offsets) {
+                    int neighbour = i + offset;
+                    // Degrees only go down, so each roll crosses below k once
+                    if (--degree[neighbour] == k - 1 && level[neighbour] == CORE && roll[neighbour] != 0) {
+                        level[neighbour] = (byte) (k - 1);
+                        tail = push(tail, neighbour);
+                    }
+                }
+            }
+        }
+        Arrays.fill(support, (byte) 0);
+    }
+
+    /**
+     * Raises the rolls whose core number grows with the new edge.
+     */
+    private void insertEdge(int u, int v) {
+        int k = Math.min(level[u], level[v]);
+        if (k >= CORE) {
+            return;
+        }
+
+        // Depth-first from the lower end through rolls at level k that could rise.
+        // support counts the neighbours that may still back a roll at level k + 1;
+        // a roll left with k or fewer is evicted and stops the search there.
+        int size = 0;
+        int stack = 0;
+        if (level[u] == k) {
+            size = visit(u, k, size);
+            stack = push(stack, u);
+        }
+        if (level[v] == k) {
+            size = visit(v, k, size);
+            stack = push(stack, v);
+        }
+        while (stack > 0) {
+            int i = worklist[--stack];
+            if (!candidate[i]) {
+                continue;
+            }
+            if (support[i] <= k) {
+                evict(i, k);
+                continue;
+            }
+            for (int d = 0; d < offsets.length; d++) {
+                int neighbour = i + offsets[d];
+                if (isLinked(i, d) && level[neighbour] == k && !visited[neighbour]
+                        && levelDegree(neighbour, k) > k) {
+                    size = visit(neighbour, k, size);
+                    stack = push(stack, neighbour);
+                }
+            }
+        }
+
+        // Every roll that kept its support rises a level
+        for (int r = 0; r < size; r++) {
+            int i = region[r];
+            if (candidate[i]) {
+                candidate[i] = false;
+                level[i]++;
+                if (level[i] == CORE) {
+                    coreSize++;
+                }
+            }
+            visited[i] = false;
+            support[i] = 0;
+        }
+    }
+
+    private int visit(int i, int k, int size) {
+        visited[i] = true;
+        candidate[i] = true;
+        support[i] = (byte) pureDegree(i, k);
+        if (size == region.length) {
+            region = Arrays.copyOf(region, size * 2);
+        }
+        region[size] = i;
+        return size + 1;
+    }
+
+    /**
+     * Drops a roll from the rising candidates, and in turn every
+     * candidate it leaves with too little support.
+     */
+    private void evict(int start, int k) {
+        candidate[start] = false;
+        int tail = 0;
+        evicted = pushTo(evicted, tail++, start);
+        while (tail > 0) {
+            int i = evicted[--tail];
+            for (int d = 0; d < offsets.length; d++) {
+                int neighbour = i + offsets[d];
+                if (isLinked(i, d) && candidate[neighbour] && --support[neighbour] <= k) {
+                    candidate[neighbour] = false;
+                    evicted = pushTo(evicted, tail++, neighbour);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lowers the rolls whose core number shrinks without the edge.
+     */
+    private void deleteEdge(int u, int v) {
+        int k = Math.min(level[u], level[v]);
+        int tail = 0;
+        if (level[u] == k && levelDegree(u, k) < k) {
+            tail = push(tail, lower(u));
+        }
+        if (level[v] == k && levelDegree(v, k) < k) {
+            tail = push(tail, lower(v));
+        }
+        for (int head = 0; head < tail; head++) {
+            int i = worklist[head];
+            for (int d = 0; d < offsets.length; d++) {
+                int neighbour = i + offsets[d];
+                if (isLinked(i, d) && level[neighbour] == k && levelDegree(neighbour, k) < k) {
+                    tail = push(tail, lower(neighbour));
+                }
+            }
+        }
+    }
+
+    private int lower(int i) {
+        if (level[i] == CORE) {
+            coreSize--;
+        }
+        level[i]--;
+        return i;
+    }
+
+    /**
+     * @return the neighbours of a roll whose core number is at least k
+     */
+    private int levelDegree(int i, int k) {
+        int degree = 0;
+        for (int d = 0; d < offsets.length; d++) {
+            if (isLinked(i, d) && level[i + offsets[d]] >= k) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * @return the neighbours of a roll that are above level k, or at
+     * level k with more than k neighbours of at least that level and
+     * not yet evicted
+     */
+    private int pureDegree(int i, int k) {
+        int degree = 0;
+        for (int d = 0; d < offsets.length; d++) {
+            int neighbour = i + offsets[d];
+            if (isLinked(i, d) && (level[neighbour] > k
+                    || level[neighbour] == k && (candidate[neighbour] || !visited[neighbour])
+                    && levelDegree(neighbour, k) > k)) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * @return whether a roll is joined to its neighbour in direction d
+     */
+    private boolean isLinked(int i, int d) {
+        int neighbour = i + offsets[d];
+        if (roll[neighbour] == 0) {
+            return false;
+        }
+        if (i == pending) {
+            return d < linked;
+        }
+        return neighbour != pending || offsets.length - 1 - d < linked;
+    }
+
+    private int push(int tail, int i) {
+        if (tail == worklist.length) {
+            worklist = Arrays.copyOf(worklist, tail * 2);
+        }
+        worklist[tail] = i;
+        return tail + 1;
+    }
+
+    private static int[] pushTo(int[] stack, int tail, int i) {
+        if (tail == stack.length) {
+            stack = Arrays.copyOf(stack, tail * 2);
+        }
+        stack[tail] = i;
+        return stack;
+    }
+
+    private int index(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Cell (" + row + ", " + col + ") is outside the grid");
+        }
+        return (row + 1) * stride + col + 1;
+    }
+}
@@ -0,0 +1,229 @@
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Instrumentation of the solve pipeline. Timings are published as JDK
+ * Flight Recorder events, which are inert unless a recording enables them
+ * (run with {@code -XX:StartFlightRecording}). Events are only created
+ * once Flight Recorder is up, see {@link #recording()}, because the first
+ * event class to load starts it. Counters that JFR cannot see cheaply,
+ * such as neighbour probes, are only kept when the JVM is started with
+ * {@code -Dday4.metrics=true}; the flag is a static final constant, so
+ * the JIT drops the counting code entirely otherwise.
+ */
+final class Metrics {
+
+    static final boolean ENABLED = Boolean.getBoolean("day4.metrics");
+
+    static final LongAdder PROBES = new LongAdder();
+    private static final LongAdder ROUNDS = new LongAdder();
+    private static final LongAdder REMOVALS = new LongAdder();
+    private static final LongAdder CELLS_SCANNED = new LongAdder();
+    private static final LongAdder FRAMES = new LongAdder();
+    private static final LongAdder FRAME_NANOS = new LongAdder();
+    private static final Map<String, LongAdder> PHASE_NANOS = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * A solve step that may fail with a checked exception.
+     */
+    @FunctionalInterface
+    interface Phase<E extends Exception> {
+
+        int run() throws E;
+    }
+
+    /**
+     * Runs one phase of the pipeline, recording its duration and answer.
+     *
+     * @param name the phase name, e.g. "part1" or "parallel.part2"
+     * @param phase the work to time
+     * @return the answer computed by the phase
+     */
+    static <E extends Exception> int phase(String name, Phase<E> phase) throws E {
+        Span span = begin(name);
+        int result = phase.run();
+        span.end(result);
+        return result;
+    }
+
+    /**
+     * Starts timing a phase whose answer is not a plain int computation.
+     *
+     * @param name the phase name
+     * @return the span to end once the phase is done
+     */
+    static Span begin(String name) {
+        return new Span(name);
+    }
+
+    /**
+     * Tells whether Flight Recorder has been started, at launch or later
+     * through {@code jcmd JFR.start}. Until then no recording can want
+     * an event, and creating one would load and start the whole JFR
+     * runtime, costing a few hundred milliseconds of startup.
+     *
+     * @return whether events may be created
+     */
+    static boolean recording() {
+        return FlightRecorder.isInitialized();
+    }
+
+    static void time(String phase, long nanos) {
+        PHASE_NANOS.computeIfAbsent(phase, key -> new LongAdder()).add(nanos);
+    }
+
+    /**
+     * A running phase, see {@link #begin(String)}.
+     */
+    static final class Span {
+
+        private final String name;
+        private final SolvePhaseEvent event;
+        private final long start;
+
+        private Span(String name) {
+            this.name = name;
+            this.start = ENABLED ? System.nanoTime() : 0;
+            this.event = recording() ? new SolvePhaseEvent() : null;
+            if (event != null) {
+                event.begin();
+            }
+        }
+
+        void end(int result) {
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.phase = name;
+                    event.result = result;
+                    event.commit();
+                }
+            }
+            if (ENABLED) {
+                time(name, System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Records one synchronous removal round of a part 2 engine.
+     *
+     * @param engine the engine that ran the round
+     * @param round the 1-based round number
+     * @param removed the rolls removed in the round
+     * @param cellsScanned the cells the engine examined to decide the round
+     */
+    static void round(String engine, int round, int removed, long cellsScanned) {
+        RemovalRoundEvent event = recording() ? new RemovalRoundEvent() : null;
+        if (event != null && event.shouldCommit()) {
+            event.engine = engine;
+            event.round = round;
+            event.removed = removed;
+            event.cellsScanned = cellsScanned;
+            event.commit();
+        }
+        if (ENABLED) {
+            ROUNDS.increment();
+            REMOVALS.add(removed);
+            CELLS_SCANNED.add(cellsScanned);
+        }
+    }
+
+    static void frame(long nanos) {
+        FRAMES.increment();
+        FRAME_NANOS.add(nanos);
+    }
+
+    /**
+     * @return the counters collected so far, one per line
+     */
+    static String summary() {
+        StringBuilder summary = new StringBuilder("Metrics:\n");
+        new TreeMap<>(PHASE_NANOS).forEach((name, nanos) -> summary.append(
+                String.format("  phase %-16s %10.3f ms%n", name, nanos.sum() / 1e6)));
+        summary.append(String.format("  rounds           %,d%n", ROUNDS.sum()));
+        summary.append(String.format("  removals         %,d%n", REMOVALS.sum()));
+        summary.append(String.format("  cells scanned    %,d%n", CELLS_SCANNED.sum()));
+        summary.append(String.format("  neighbour probes %,d%n", PROBES.sum()));
+        long frames = FRAMES.sum();
+        summary.append(String.format("  frames rendered  %,d (%.3f ms avg)%n",
+                frames, frames == 0 ? 0.0 : FRAME_NANOS.sum() / 1e6 / frames));
+        return summary.toString();
+    }
+
+    @Name("aoc.day4.InputRead")
+    @Label("Input Read")
+    @Category({"Advent of Code", "Day 4"})
+    @Description("Mapping and indexing the lines of an input file")
+    static final class InputReadEvent extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Rows")
+        int rows;
+
+        @Label("Columns")
+        int cols;
+    }
+
+    @Name("aoc.day4.SolvePhase")
+    @Label("Solve Phase")
+    @Category({"Advent of Code", "Day 4"})
+    static final class SolvePhaseEvent extends Event {
+
+        @Label("Phase")
+        String phase;
+
+        @Label("Result")
+        int result;
+    }
+
+    @Name("aoc.day4.RemovalRound")
+    @Label("Removal Round")
+    @Category({"Advent of Code", "Day 4"})
+    @Description("One synchronous round of removing accessible rolls")
+    static final class RemovalRoundEvent extends Event {
+
+        @Label("Engine")
+        String engine;
+
+        @Label("Round")
+        int round;
+
+        @Label("Removed")
+        int removed;
+
+        @Label("Cells Scanned")
+        long cellsScanned;
+    }
+
+    @Name("aoc.day4.FrameRender")
+    @Label("Frame Render")
+    @Category({"Advent of Code", "Day 4", "Visualization"})
+    static final class FrameRenderEvent extends Event {
+
+        @Label("Round")
+        int round;
+
+        @Label("Cells Drawn")
+        int cells;
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Neighbour counts of every cell of a character grid, built once and kept
+ * in step with the grid as rolls are removed. Each removal only touches
+ * the 8 counts around it, so readers such as the solvers, the animation
+ * and the renderer can look up accessibility without probing the grid.
+ */
+final class NeighbourIndex {
+
+    final int rows;
+    final int cols;
+    private final char[][] grid;
+    private final byte[] counts;
+
+    /**
+     * Indexes the given rectangular grid. The grid is shared, not copied:
+     * removals through {@link #remove} update it in place.
+     *
+     * @param grid the grid to index
+     */
+    NeighbourIndex(char[][] grid) {
+        this.grid = grid;
+        this.rows = grid.length;
+        this.cols = rows == 0 ? 0 : grid[0].length;
+        this.counts = new byte[rows * cols];
+        rebuild();
+    }
+
+    /**
+     * Recounts every cell from scratch, e.g. after the grid was reset.
+     */
+    void rebuild() {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                counts[row * cols + col] = (byte) Result.countAdjacentRolls(grid, row, col);
+            }
+        }
+    }
+
+    int count(int row, int col) {
+        return counts[row * cols + col];
+    }
+
+    boolean isRoll(int row, int col) {
+        return grid[row][col] == '@';
+    }
+
+    boolean isAccessible(int row, int col) {
+        return grid[row][col] == '@' && counts[row * cols + col] < 4;
+    }
+
+    /**
+     * Removes a roll (marking it with 'x') and decrements the counts of its
+     * neighbours. Rolls whose count drops below 4 because of this removal
+     * are appended to the worklist, if one is given; since counts only go
+     * down, each roll crosses the threshold at most once.
+     *
+     * @param row the row of the roll to remove
+     * @param col the column of the roll to remove
+     * @param worklist receives {@code row * cols + col} of newly accessible rolls, may be null
+     * @param tail the next free slot of the worklist
+     * @return the new tail of the worklist
+     */
+    int remove(int row, int col, int[] worklist, int tail) {
+        grid[row][col] = 'x';
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if (dr == 0 && dc == 0) {
+                    continue; // Skip self
+                }
+                int newRow = row + dr;
+                int newCol = col + dc;
+                if (newRow >= 0 && newRow < rows && newCol >= 0 && newCol < cols) {
+                    int neighbour = newRow * cols + newCol;
+                    if (--counts[neighbour] == 3 && worklist != null && grid[newRow][newCol] == '@') {
+                        worklist[tail++] = neighbour;
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+}
@@ -0,0 +1,148 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Runs the bitboard solvers on a {@link ForkJoinPool}, one task per band
+ * of {@code bandSize} rows. Bands only read the single halo row on either
+ * side of them, so they can be processed independently. Part 2 runs
+ * synchronous rounds: every band records its removals against the same
+ * snapshot of the grid, and the removals are only applied once all bands
+ * have finished, which keeps the result independent of the thread count.
+ */
+final class ParallelSolver implements AutoCloseable {
+
+    static final int DEFAULT_BAND_SIZE = 128;
+
+    private final ForkJoinPool pool;
+    private final int bandSize;
+
+    ParallelSolver(int parallelism, int bandSize) {
+        if (bandSize <= 0) {
+            throw new IllegalArgumentException("Band size must be positive: " + bandSize);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.bandSize = bandSize;
+    }
+
+    /**
+     * Counts the accessible rolls of the board, band by band.
+     *
+     * @param board the board to inspect
+     * @return the number of rolls with fewer than 4 adjacent rolls
+     */
+    int countAccessible(Bitboard board) {
+        return forEachBand(bandCount(board), band ->
+                board.countAccessible(bandStart(band), bandEnd(board, band)));
+    }
+
+    /**
+     * Removes accessible rolls in synchronous rounds until none are left.
+     * The given board is not modified.
+     *
+     * @param board the board to peel
+     * @return the total number of rolls removed
+     */
+    int removeAll(Bitboard board) {
+        int bands = bandCount(board);
+        long[] cells = board.copy().bits;
+        long[] removed = new long[cells.length];
+        int[] removedPerBand = new int[bands];
+        boolean[] dirty = new boolean[bands];
+        Arrays.fill(dirty, true);
+        int totalRemoved = 0;
+        int round = 0;
+
+        while (true) {
+            // Every band marks its removals in its own rows of the mask array
+            int removedThisRound = forEachBand(bands, band -> {
+                int from = bandStart(band);
+                int to = bandEnd(board, band);
+                if (!dirty[band]) {
+                    // Stale masks are harmless: clearing removed rolls again is a no-op
+                    removedPerBand[band] = 0;
+                    return 0;
+                }
+                removedPerBand[band] = board.markAccessible(cells, from, to, removed);
+                return removedPerBand[band];
+            });
+            if (removedThisRound == 0) {
+                return totalRemoved;
+            }
+            totalRemoved += removedThisRound;
+            long scanned = 0;
+            for (int band = 0; band < bands; band++) {
+                if (dirty[band]) {
+                    scanned += (long) (bandEnd(board, band) - bandStart(band)) * board.cols;
+                }
+            }
+            Metrics.round("parallel", ++round, removedThisRound, scanned);
+
+            // Barrier passed: apply all masks, then only bands next to a change stay dirty
+            forEachBand(bands, band -> {
+                for (int i = bandStart(band) * board.words; i < bandEnd(board, band) * board.words; i++) {
+                    cells[i] &= ~removed[i];
+                }
+                return 0;
+            });
+            for (int band = 0; band < bands; band++) {
+                dirty[band] = removedPerBand[band] > 0
+                        || (band > 0 && removedPerBand[band - 1] > 0)
+                        || (band + 1 < bands && removedPerBand[band + 1] > 0);
+            }
+        }
+    }
+
+    private int bandCount(Bitboard board) {
+        return (board.rows + bandSize - 1) / bandSize;
+    }
+
+    private int bandStart(int band) {
+        return band * bandSize;
+    }
+
+    private int bandEnd(Bitboard board, int band) {
+        return Math.min(board.rows, (band + 1) * bandSize);
+    }
+
+    private int forEachBand(int bands, IntUnaryOperator action) {
+        return bands == 0 ? 0 : pool.invoke(new BandTask(0, bands, action));
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Applies an action to a range of bands by splitting it in halves and
+     * summing the results.
+     */
+    private static final class BandTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntUnaryOperator action;
+
+        BandTask(int from, int to, IntUnaryOperator action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from == 1) {
+                return action.applyAsInt(from);
+            }
+            int mid = (from + to) >>> 1;
+            BandTask left = new BandTask(from, mid, action);
+            left.fork();
+            int right = new BandTask(mid, to, action).compute();
+            return left.join() + right;
+        }
+    }
+}
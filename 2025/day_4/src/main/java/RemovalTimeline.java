@@ -0,0 +1,313 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Record of a full solve in synchronous rounds: the round in which every
+ * cell is removed, and the removed cells in round order. Any intermediate
+ * state can be read back by thresholding the per-cell rounds, so nothing
+ * needs to be re-simulated to jump to a round.
+ */
+final class RemovalTimeline {
+
+    private static final int NARROW_NEVER = Character.MAX_VALUE;
+
+    final int rows;
+    final int cols;
+    private final char[] narrowRounds;
+    private final int[] wideRounds;
+    private final int[] order;
+    private final int[] roundEnds;
+    private final int rounds;
+    private final int rollCount;
+
+    private RemovalTimeline(int rows, int cols, char[] narrowRounds, int[] wideRounds,
+            int[] order, int[] roundEnds, int rounds, int rollCount) {
+        this.rows = rows;
+        this.cols = cols;
+        this.narrowRounds = narrowRounds;
+        this.wideRounds = wideRounds;
+        this.order = order;
+        this.roundEnds = roundEnds;
+        this.rounds = rounds;
+        this.rollCount = rollCount;
+    }
+
+    /**
+     * Solves the grid in synchronous rounds. The rolls accessible in the
+     * next round are exactly those whose count drops below 4 during the
+     * current one, so the worklist never rescans the grid.
+     *
+     * @param input the grid to solve
+     * @return the timeline of the solve
+     */
+    static RemovalTimeline compute(GridInput input) {
+        char[][] grid = input.toCharGrid();
+        NeighbourIndex neighbours = new NeighbourIndex(grid);
+        int rows = neighbours.rows;
+        int cols = neighbours.cols;
+        int[] order = new int[rows * cols];
+        int tail = 0;
+        int rollCount = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (neighbours.isRoll(row, col)) {
+                    rollCount++;
+                }
+                if (neighbours.isAccessible(row, col)) {
+                    order[tail++] = row * cols + col;
+                }
+            }
+        }
+
+        // Rolls queued while removing round k are exactly round k + 1
+        int[] roundEnds = new int[16];
+        int rounds = 0;
+        int head = 0;
+        long scanned = (long) rows * cols;
+        while (head < tail) {
+            int end = tail;
+            int removed = end - head;
+            if (rounds == roundEnds.length) {
+                roundEnds = Arrays.copyOf(roundEnds, rounds * 2);
+            }
+            roundEnds[rounds++] = end;
+            for (; head < end; head++) {
+                tail = neighbours.remove(order[head] / cols, order[head] % cols, order, tail);
+            }
+            Metrics.round("timeline", rounds, removed, scanned);
+            scanned = 8L * removed;
+        }
+
+        // Per-cell rounds: 0 for empty cells, "never" for rolls that stay
+        boolean narrow = rounds < NARROW_NEVER;
+        char[] narrowRounds = narrow ? new char[rows * cols] : null;
+        int[] wideRounds = narrow ? null : new int[rows * cols];
+        int start = 0;
+        for (int round = 1; round <= rounds; round++) {
+            for (int i = start; i < roundEnds[round - 1]; i++) {
+                if (narrow) {
+                    narrowRounds[order[i]] = (char) round;
+                } else {
+                    wideRounds[order[i]] = round;
+                }
+            }
+            start = roundEnds[round - 1];
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (neighbours.isRoll(row, col)) {
+                    if (narrow) {
+                        narrowRounds[row * cols + col] = NARROW_NEVER;
+                    } else {
+                        wideRounds[row * cols + col] = Integer.MAX_VALUE;
+                    }
+                }
+            }
+        }
+        return new RemovalTimeline(rows, cols, narrowRounds, wideRounds,
+                Arrays.copyOf(order, tail), Arrays.copyOf(roundEnds, rounds), rounds, rollCount);
+    }
+
+    /**
+     * @return the number of rounds that removed at least one roll
+     */
+    int rounds() {
+        return rounds;
+    }
+
+    int rollCount() {
+        return rollCount;
+    }
+
+    int totalRemoved() {
+        return order.length;
+    }
+
+    /**
+     * @param round a round number, starting at 1
+     * @return the number of rolls removed in that round, 0 past the end
+     */
+    int removedInRound(int round) {
+        return removedBy(round) - removedBy(round - 1);
+    }
+
+    /**
+     * @param round a round number, or 0 for the initial state
+     * @return the number of rolls removed in rounds 1 to {@code round}
+     */
+    int removedBy(int round) {
+        if (round <= 0 || rounds == 0) {
+            return 0;
+        }
+        return roundEnds[Math.min(round, rounds) - 1];
+    }
+
+    /**
+     * Returns a removed cell by its position in removal order. The cells
+     * of round {@code k} are positions {@code removedBy(k - 1)} up to
+     * {@code removedBy(k)}.
+     *
+     * @param position the position in removal order
+     * @return the cell as {@code row * cols + col}
+     */
+    int removedCell(int position) {
+        return order[position];
+    }
+
+    /**
+     * @return whether the cell holds a roll after {@code round} rounds
+     */
+    boolean isRoll(int row, int col, int round) {
+        int index = row * cols + col;
+        int removedIn = narrowRounds != null ? narrowRounds[index] : wideRounds[index];
+        return removedIn > round;
+    }
+
+    /**
+     * @return the number of the cell's eight neighbours that hold a roll
+     *     after {@code round} rounds
+     */
+    int adjacentRolls(int row, int col, int round) {
+        int count = 0;
+        for (int newRow = Math.max(0, row - 1); newRow <= Math.min(rows - 1, row + 1); newRow++) {
+            for (int newCol = Math.max(0, col - 1); newCol <= Math.min(cols - 1, col + 1); newCol++) {
+                if ((newRow != row || newCol != col) && isRoll(newRow, newCol, round)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the state after {@code round} rounds into a grid: '@' for
+     * rolls, 'x' for removed rolls and '.' for empty cells.
+     *
+     * @param grid a {@code rows x cols} grid to overwrite
+     * @param round the round to show, 0 for the initial state
+     */
+    void fillGrid(char[][] grid, int round) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int index = row * cols + col;
+                int removedIn = narrowRounds != null ? narrowRounds[index] : wideRounds[index];
+                grid[row][col] = removedIn == 0 ? '.' : removedIn > round ? '@' : 'x';
+            }
+        }
+    }
+
+    /**
+     * Picks the rounds that best keep the shape of the removals per round
+     * when plotted with fewer points than rounds, using Largest Triangle
+     * Three Buckets (Steinarsson, "Downsampling Time Series for Visual
+     * Representation", 2013). The first and last rounds are always kept;
+     * every bucket of rounds in between contributes the round forming the
+     * largest triangle with the previous pick and the next bucket's mean.
+     *
+     * @param lastRound plot rounds 1 to {@code lastRound}
+     * @param selected receives the picked rounds in order; its length is
+     *     the number of points wanted
+     * @return the number of rounds written to {@code selected}
+     */
+    int downsample(int lastRound, int[] selected) {
+        int threshold = selected.length;
+        if (lastRound <= threshold) {
+            for (int i = 0; i < lastRound; i++) {
+                selected[i] = i + 1;
+            }
+            return lastRound;
+        }
+        if (threshold < 3) {
+            // Too few points for buckets: keep the ends
+            if (threshold == 2) {
+                selected[0] = 1;
+            }
+            if (threshold > 0) {
+                selected[threshold - 1] = lastRound;
+            }
+            return threshold;
+        }
+
+        // Rounds 2 to lastRound - 1 are split into threshold - 2 buckets
+        double bucket = (double) (lastRound - 2) / (threshold - 2);
+        int previous = 1;
+        selected[0] = previous;
+        for (int i = 0; i < threshold - 2; i++) {
+            int from = 2 + (int) (i * bucket);
+            int to = 2 + (int) ((i + 1) * bucket);
+            int nextFrom = to;
+            int nextTo = Math.min(lastRound + 1, 2 + (int) ((i + 2) * bucket));
+            double meanRound = 0;
+            double meanRemoved = 0;
+            for (int round = nextFrom; round < nextTo; round++) {
+                meanRound += round;
+                meanRemoved += removedInRound(round);
+            }
+            meanRound /= nextTo - nextFrom;
+            meanRemoved /= nextTo - nextFrom;
+
+            int previousRemoved = removedInRound(previous);
+            double largest = -1;
+            int pick = from;
+            for (int round = from; round < to; round++) {
+                double area = Math.abs((previous - meanRound) * (removedInRound(round) - previousRemoved)
+                        - (previous - round) * (meanRemoved - previousRemoved));
+                if (area > largest) {
+                    largest = area;
+                    pick = round;
+                }
+            }
+            selected[i + 1] = pick;
+            previous = pick;
+        }
+        selected[threshold - 1] = lastRound;
+        return threshold;
+    }
+
+    /**
+     * Writes one CSV line per round: the round, the rolls removed in it
+     * and the rolls removed so far. Digits are formatted into a reused
+     * buffer, so long runs cost no allocation per round.
+     *
+     * @param out the stream to write to, left open
+     * @throws IOException if writing fails
+     */
+    void writeCsv(OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        int length = 0;
+        byte[] header = "round,removed,total\n".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(header, 0, buffer, 0, header.length);
+        length += header.length;
+        for (int round = 1; round <= rounds; round++) {
+            // Three ints of at most 10 digits, two commas and a newline
+            if (length > buffer.length - 33) {
+                out.write(buffer, 0, length);
+                length = 0;
+            }
+            length = writeDigits(buffer, length, round);
+            buffer[length++] = ',';
+            length = writeDigits(buffer, length, removedInRound(round));
+            buffer[length++] = ',';
+            length = writeDigits(buffer, length, removedBy(round));
+            buffer[length++] = '\n';
+        }
+        out.write(buffer, 0, length);
+        out.flush();
+    }
+
+    private static int writeDigits(byte[] buffer, int offset, int value) {
+        int end = offset;
+        int rest = value;
+        do {
+            end++;
+            rest /= 10;
+        } while (rest != 0);
+        for (int i = end - 1; i >= offset; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+}
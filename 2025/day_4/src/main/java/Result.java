@@ -0,0 +1,319 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.swing.SwingUtilities;
+
+/**
+ * Solution class for Advent of Code 2025 Day 4 challenge.
+ * https://adventofcode.com/2025/day/4
+ *
+ * @author flubi0
+ *
+ */
+public class Result {
+
+    private static final Path INPUT_PATH = Path.of("input", "input.txt");
+    // Where the Vector API kernel overtakes the worklist in a cold JVM, about 3000x3000
+    static final int VECTOR_MIN_CELLS = 1 << 23;
+
+    public static void main(String[] args) {
+        CommandLine options;
+        try {
+            options = CommandLine.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("error: " + e.getMessage());
+            System.err.println("Run with --help to list the options.");
+            System.exit(2);
+            return;
+        }
+        if (options.help) {
+            System.out.print(CommandLine.USAGE);
+            return;
+        }
+        if (options.workerPort > 0) {
+            // Started by a coordinator: no output of its own
+            try {
+                StripeCluster.work(options.workerPort);
+            } catch (IOException e) {
+                throw new RuntimeException("Worker failed", e);
+            }
+            return;
+        }
+
+        if (Metrics.ENABLED) {
+            // The GUI keeps running after main returns, so report at exit
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(Metrics.summary())));
+        }
+
+        if (options.batch != null) {
+            // One JSON line per file on stdout, no header and no GUI
+            int failures;
+            try {
+                failures = new BatchSolver(options.threads, System.out).run(options.batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (failures > 0) {
+                System.exit(1);
+            }
+            return;
+        }
+
+        if (options.writeSnapshot != null) {
+            try {
+                GridSnapshot.write(InputHolder.INPUT, options.writeSnapshot);
+            } catch (IOException e) {
+                throw new RuntimeException("Error writing snapshot " + options.writeSnapshot, e);
+            }
+            System.out.printf("Wrote snapshot %s\n", options.writeSnapshot);
+            return;
+        }
+
+        System.out.println("2025 Day 4 Results:");
+        if (options.snapshot != null) {
+            // Answers only: the visualization replays the text grid
+            GridSnapshot loaded;
+            try {
+                Metrics.Span span = Metrics.begin("snapshot.load");
+                loaded = GridSnapshot.map(options.snapshot);
+                span.end(loaded.rows);
+            } catch (IOException e) {
+                throw new RuntimeException("Error reading snapshot " + options.snapshot, e);
+            }
+            System.out.printf("Part 1: %d\n", Metrics.phase("snapshot.part1", loaded::countAccessible));
+            System.out.printf("Part 2: %d\n", Metrics.phase("snapshot.part2", loaded::removeAll));
+            return;
+        }
+        if (options.workers > 0) {
+            int[] answers;
+            try {
+                Metrics.Span span = Metrics.begin("cluster");
+                answers = StripeCluster.coordinate(INPUT_PATH, options.workers);
+                span.end(answers[1]);
+            } catch (IOException e) {
+                throw new RuntimeException("Distributed solve failed", e);
+            }
+            System.out.printf("Part 1: %d\n", answers[0]);
+            System.out.printf("Part 2: %d\n", answers[1]);
+            return;
+        }
+        if (options.stream) {
+            // Bounded memory: never load the grid, and skip the GUI that would need it
+            try {
+                System.out.printf("Part 1: %d\n",
+                        Metrics.phase("stream.part1", () -> StreamingSolver.countAccessible(INPUT_PATH)));
+                System.out.printf("Part 2: %d\n",
+                        Metrics.phase("stream.part2", () -> StreamingSolver.removeAll(INPUT_PATH)));
+            } catch (IOException e) {
+                throw new RuntimeException("Error reading input file", e);
+            }
+            return;
+        }
+
+        if (options.rule != null) {
+            // The other engines and the visualization implement the puzzle rule only
+            Rule active = options.rule;
+            System.out.printf("Part 1: %d\n",
+                    Metrics.phase("rule.part1", () -> new RuleSolver(InputHolder.INPUT, active).countAccessible()));
+            System.out.printf("Part 2: %d\n",
+                    Metrics.phase("rule.part2", () -> new RuleSolver(InputHolder.INPUT, active).removeAll()));
+            return;
+        }
+
+        // The timeline is only needed to show or export the rounds
+        boolean replay = !options.headless || options.export != null || options.history != null;
+        RemovalTimeline timeline = null;
+        if (options.parallel) {
+            Bitboard board = Bitboard.from(InputHolder.INPUT);
+            try (ParallelSolver solver = new ParallelSolver(options.threads, options.bandSize)) {
+                System.out.printf("Part 1: %d\n", Metrics.phase("parallel.part1", () -> solver.countAccessible(board)));
+                System.out.printf("Part 2: %d\n", Metrics.phase("parallel.part2", () -> solver.removeAll(board)));
+            }
+        } else if (options.simd) {
+            AccessibilityKernel kernel = ByteGridSolver.loadKernel();
+            System.out.printf("Part 1: %d\n",
+                    Metrics.phase("simd.part1", () -> new ByteGridSolver(InputHolder.INPUT, kernel).countAccessible()));
+            System.out.printf("Part 2: %d\n",
+                    Metrics.phase("simd.part2", () -> new ByteGridSolver(InputHolder.INPUT, kernel).removeAll()));
+        } else if (options.sparse) {
+            System.out.printf("Part 1: %d\n",
+                    Metrics.phase("sparse.part1", () -> TiledGrid.from(InputHolder.INPUT).countAccessible()));
+            System.out.printf("Part 2: %d\n",
+                    Metrics.phase("sparse.part2", () -> TiledGrid.from(InputHolder.INPUT).removeAll()));
+        } else {
+            System.out.printf("Part 1: %d\n", Metrics.phase("part1", () -> solPart1(InputHolder.INPUT)));
+            if (replay) {
+                // The visualization replays the same timeline that answers part 2
+                timeline = computeTimeline();
+                System.out.printf("Part 2: %d\n", timeline.totalRemoved());
+            } else {
+                System.out.printf("Part 2: %d\n", Metrics.phase("part2", () -> solPart2(InputHolder.INPUT)));
+            }
+        }
+        if (!replay) {
+            return;
+        }
+        RemovalTimeline replayed = timeline != null ? timeline : computeTimeline();
+
+        if (options.history != null) {
+            try (OutputStream out = Files.newOutputStream(options.history)) {
+                replayed.writeCsv(out);
+            } catch (IOException e) {
+                throw new RuntimeException("Error writing history to " + options.history, e);
+            }
+            System.out.printf("Wrote %d rounds to %s\n", replayed.rounds(), options.history);
+        }
+        if (options.export != null) {
+            try {
+                FrameExporter exporter = new FrameExporter(replayed, options.cellSize, options.threads);
+                Metrics.Span span = Metrics.begin("export");
+                int frames = exporter.export(options.export);
+                span.end(frames);
+                System.out.printf("Exported %d frames to %s\n", frames, options.export);
+            } catch (IOException e) {
+                throw new RuntimeException("Error exporting frames to " + options.export, e);
+            }
+            return;
+        }
+        if (options.headless) {
+            return;
+        }
+
+        // Launch GUI visualization
+        SwingUtilities.invokeLater(() -> new WarehouseVisualization(replayed));
+    }
+
+    private static RemovalTimeline computeTimeline() {
+        Metrics.Span span = Metrics.begin("timeline");
+        RemovalTimeline timeline = RemovalTimeline.compute(InputHolder.INPUT);
+        span.end(timeline.totalRemoved());
+        return timeline;
+    }
+
+    /**
+     * Solves part 1 of the problem by counting accessible rolls in a grid.
+     *
+     * This method packs the input grid into a {@link Bitboard} and lets it
+     * count the rolls with fewer than 4 adjacent rolls 64 cells at a time.
+     *
+     * @param input the grid to solve
+     * @return the total number of accessible rolls (positions marked with '@'
+     * that have fewer than 4 adjacent rolls)
+     */
+    static int solPart1(GridInput input) {
+        return Bitboard.from(input).countAccessible();
+    }
+
+    /**
+     * Counts the number of adjacent cells containing the '@' character around a
+     * given position in a 2D grid. This method examines all 8 surrounding cells
+     * (horizontally, vertically, and diagonally adjacent) and counts how many
+     * contain the '@' character.
+     *
+     * @param grid the 2D character array representing the grid to search
+     * @param row the row index of the center position (0-based)
+     * @param col the column index of the center position (0-based)
+     * @return the count of adjacent cells containing '@' character (0-8)
+     */
+    static int countAdjacentRolls(char[][] grid, int row, int col) {
+        int count = 0;
+        int probes = 0;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if (dr == 0 && dc == 0) {
+                    continue; // Skip self
+                }
+                int newRow = row + dr;
+                int newCol = col + dc;
+                if (newRow >= 0 && newRow < grid.length
+                        && newCol >= 0 && newCol < grid[newRow].length) {
+                    probes++;
+                    if (grid[newRow][newCol] == '@') {
+                        count++;
+                    }
+                }
+            }
+        }
+        if (Metrics.ENABLED) {
+            Metrics.PROBES.add(probes);
+        }
+        return count;
+    }
+
+    /**
+     * Solves part 2 of the problem by iteratively removing accessible rolls
+     * from the grid until no more can be removed.
+     *
+     * This method copies the input into a mutable grid and counts the
+     * adjacent rolls of every '@' exactly once. Rolls with fewer than 4
+     * adjacent rolls are put on a worklist. Removing a roll (marking it with
+     * 'x') can only lower the counts of its 8 neighbours, so each removal
+     * decrements those counts and queues a neighbour the moment its count
+     * drops below 4. The process continues until the worklist is empty, which
+     * keeps the cost linear in the number of cells plus removals instead of
+     * rescanning the whole grid for every round.
+     *
+     * Grids of at least {@link #VECTOR_MIN_CELLS} cells run their rounds
+     * on a {@link ByteGridSolver} instead when the Vector API kernel is
+     * available. It decides a whole vector of cells per step and is several
+     * times faster once compiled, but until the JIT has compiled it, it
+     * runs far slower than the worklist. Only large grids make up for that
+     * in a single run.
+     *
+     * @param input the grid to solve
+     * @return the total number of rolls removed from the grid
+     */
+    static int solPart2(GridInput input) {
+        if ((long) input.rows * input.cols >= VECTOR_MIN_CELLS && ByteGridSolver.hasVectorKernel()) {
+            return new ByteGridSolver(input, ByteGridSolver.loadKernel()).removeAll("part2");
+        }
+        NeighbourIndex neighbours = new NeighbourIndex(input.toCharGrid());
+        int[] queue = new int[neighbours.rows * neighbours.cols];
+        int head = 0;
+        int tail = 0;
+
+        // Queue every roll that is already accessible
+        for (int row = 0; row < neighbours.rows; row++) {
+            for (int col = 0; col < neighbours.cols; col++) {
+                if (neighbours.isAccessible(row, col)) {
+                    queue[tail++] = row * neighbours.cols + col;
+                }
+            }
+        }
+
+        // Peel rolls off the worklist, only revisiting the neighbours of each removal.
+        // Rolls queued while removing round k are exactly round k + 1.
+        long scanned = (long) neighbours.rows * neighbours.cols;
+        int round = 0;
+        while (head < tail) {
+            int end = tail;
+            int removed = end - head;
+            for (; head < end; head++) {
+                int index = queue[head];
+                tail = neighbours.remove(index / neighbours.cols, index % neighbours.cols, queue, tail);
+            }
+            Metrics.round("part2", ++round, removed, scanned);
+            scanned = 8L * removed;
+        }
+
+        return tail;
+    }
+
+    private static GridInput readInput() {
+        try {
+            return GridInput.map(INPUT_PATH);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading input file", e);
+        }
+    }
+
+    /**
+     * Holds the mapped input so it is only loaded by the modes that need it.
+     */
+    private static final class InputHolder {
+
+        static final GridInput INPUT = readInput();
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.Locale;
+
+/**
+ * A shelf-access policy: which cells count as neighbours, how many
+ * neighbouring rolls make a roll inaccessible, and what lies beyond the
+ * edge of the grid. The puzzle's policy is {@link #PUZZLE}, which the
+ * specialised engines implement directly; {@link RuleSolver} handles any
+ * rule.
+ *
+ * @param shape the neighbourhood shape
+ * @param radius how far the neighbourhood reaches, at least 1
+ * @param threshold a roll is accessible with fewer neighbouring rolls than this
+ * @param edge what the cells outside the grid hold
+ */
+record Rule(Shape shape, int radius, int threshold, Edge edge) {
+
+    static final Rule PUZZLE = new Rule(Shape.MOORE, 1, 4, Edge.EMPTY);
+
+    enum Shape {
+        /** The square of cells within {@code radius} in both directions. */
+        MOORE,
+        /** The diamond of cells within {@code radius} steps along the axes. */
+        VON_NEUMANN
+    }
+
+    enum Edge {
+        /** Nothing outside the grid. */
+        EMPTY,
+        /** Rolls everywhere outside the grid, like a shelf against a wall. */
+        FILLED,
+        /** The grid repeats, so the last row is next to the first. */
+        WRAP
+    }
+
+    Rule {
+        if (shape == null || edge == null) {
+            throw new IllegalArgumentException("Shape and edge are required");
+        }
+        if (radius < 1) {
+            throw new IllegalArgumentException("Radius must be at least 1: " + radius);
+        }
+    }
+
+    /**
+     * Parses a comma-separated rule such as
+     * {@code von-neumann,radius=2,threshold=5,edge=wrap}. Omitted parts
+     * keep the puzzle's values.
+     *
+     * @param spec the rule to parse
+     * @return the rule
+     */
+    static Rule parse(String spec) {
+        Shape shape = PUZZLE.shape;
+        int radius = PUZZLE.radius;
+        int threshold = PUZZLE.threshold;
+        Edge edge = PUZZLE.edge;
+        for (String part : spec.split(",")) {
+            String token = part.trim().toLowerCase(Locale.ROOT);
+            if (token.equals("moore")) {
+                shape = Shape.MOORE;
+            } else if (token.equals("von-neumann")) {
+                shape = Shape.VON_NEUMANN;
+            } else if (token.startsWith("radius=")) {
+                radius = Integer.parseInt(token.substring("radius=".length()));
+            } else if (token.startsWith("threshold=")) {
+                threshold = Integer.parseInt(token.substring("threshold=".length()));
+            } else if (token.startsWith("edge=")) {
+                edge = Edge.valueOf(token.substring("edge=".length()).toUpperCase(Locale.ROOT));
+            } else {
+                throw new IllegalArgumentException("Unknown rule part: " + part);
+            }
+        }
+        return new Rule(shape, radius, threshold, edge);
+    }
+
+    /**
+     * @return whether a cell at the given offset is a neighbour
+     */
+    boolean contains(int dr, int dc) {
+        if (dr == 0 && dc == 0) {
+            return false;
+        }
+        return shape == Shape.MOORE
+                ? Math.abs(dr) <= radius && Math.abs(dc) <= radius
+                : Math.abs(dr) + Math.abs(dc) <= radius;
+    }
+}
@@ -0,0 +1,275 @@
+import java.util.Arrays;
+
+/**
+ * Solves both parts under any {@link Rule}. Neighbour counts come from a
+ * summed-area table over the grid padded by the radius on every side,
+ * with the padding filled according to the edge rule, so counting costs
+ * one table lookup per cell whatever the radius. Von Neumann diamonds
+ * are bounded by four diagonal edges, so they are counted from running
+ * sums along both diagonals of the padded grid: moving a diamond by one
+ * cell drops two edges and adds two, each a difference of two sums.
+ *
+ * Part 2 runs synchronous rounds. A round with few removals updates the
+ * counts around each removed roll; once that would touch more cells
+ * than the grid holds, the table is rebuilt instead, so a round never
+ * costs more than a constant number of passes over the grid.
+ */
+final class RuleSolver {
+
+    final int rows;
+    final int cols;
+    private final Rule rule;
+    private final boolean[] rolls;
+    private final int[] counts;
+    private final int[] offsetRows;
+    private final int[] offsetCols;
+    private int[] table;
+
+    RuleSolver(GridInput input, Rule rule) {
+        this.rows = input.rows;
+        this.cols = input.cols;
+        this.rule = rule;
+        this.rolls = new boolean[rows * cols];
+        this.counts = new int[rows * cols];
+        for (int row = 0; row < rows; row++) {
+            int length = input.length(row);
+            for (int col = 0; col < length; col++) {
+                rolls[row * cols + col] = input.at(row, col) == '@';
+            }
+        }
+
+        int reach = rule.radius();
+        int[] dr = new int[(2 * reach + 1) * (2 * reach + 1)];
+        int[] dc = new int[dr.length];
+        int size = 0;
+        for (int r = -reach; r <= reach; r++) {
+            for (int c = -reach; c <= reach; c++) {
+                if (rule.contains(r, c)) {
+                    dr[size] = r;
+                    dc[size++] = c;
+                }
+            }
+        }
+        this.offsetRows = Arrays.copyOf(dr, size);
+        this.offsetCols = Arrays.copyOf(dc, size);
+        countAll();
+    }
+
+    /**
+     * @return the number of rolls with fewer neighbouring rolls than the threshold
+     */
+    int countAccessible() {
+        int count = 0;
+        for (int i = 0; i < rolls.length; i++) {
+            if (isAccessible(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Removes accessible rolls in synchronous rounds until none are left.
+     * The solver is consumed in the process.
+     *
+     * @return the total number of rolls removed
+     */
+    int removeAll() {
+        int[] frontier = new int[rolls.length];
+        int size = 0;
+        for (int i = 0; i < rolls.length; i++) {
+            if (isAccessible(i)) {
+                frontier[size++] = i;
+            }
+        }
+
+        int[] next = new int[rolls.length];
+        int totalRemoved = 0;
+        int round = 0;
+        while (size > 0) {
+            for (int k = 0; k < size; k++) {
+                rolls[frontier[k]] = false;
+            }
+            totalRemoved += size;
+
+            int nextSize = 0;
+            long touched = (long) size * offsetRows.length;
+            if (touched > rolls.length) {
+                // Cheaper to recount everything than to visit every neighbourhood
+                countAll();
+                for (int i = 0; i < rolls.length; i++) {
+                    if (isAccessible(i)) {
+                        next[nextSize++] = i;
+                    }
+                }
+            } else {
+                for (int k = 0; k < size; k++) {
+                    nextSize = release(frontier[k], next, nextSize);
+                }
+            }
+            Metrics.round("rule", ++round, size, Math.min(touched, rolls.length));
+
+            int[] swap = frontier;
+            frontier = next;
+            next = swap;
+            size = nextSize;
+        }
+        return totalRemoved;
+    }
+
+    private boolean isAccessible(int i) {
+        return rolls[i] && counts[i] < rule.threshold();
+    }
+
+    /**
+     * Decrements the count of every cell that has the removed cell in its
+     * neighbourhood. Neighbourhoods are symmetric, so those are the cells
+     * at the negated offsets; with wrapping, a cell that sees several
+     * copies of the removed one is decremented once per copy.
+     */
+    private int release(int removed, int[] next, int nextSize) {
+        int row = removed / cols;
+        int col = removed % cols;
+        for (int k = 0; k < offsetRows.length; k++) {
+            int newRow = row - offsetRows[k];
+            int newCol = col - offsetCols[k];
+            if (rule.edge() == Rule.Edge.WRAP) {
+                newRow = Math.floorMod(newRow, rows);
+                newCol = Math.floorMod(newCol, cols);
+            } else if (newRow < 0 || newRow >= rows || newCol < 0 || newCol >= cols) {
+                continue;
+            }
+            int neighbour = newRow * cols + newCol;
+            // Counts only go down, so each roll crosses the threshold once
+            if (rolls[neighbour] && --counts[neighbour] == rule.threshold() - 1) {
+                next[nextSize++] = neighbour;
+            }
+        }
+        return nextSize;
+    }
+
+    /**
+     * Recounts the neighbours of every cell from the current rolls.
+     */
+    private void countAll() {
+        if (rows == 0 || cols == 0) {
+            return;
+        }
+        int reach = rule.radius();
+        int height = rows + 2 * reach;
+        int width = cols + 2 * reach;
+        if (rule.shape() == Rule.Shape.MOORE) {
+            // table[(y + 1) * (width + 1) + x + 1] sums the padded cells up to (y, x)
+            int stride = width + 1;
+            int[] table = table((long) (height + 1) * stride);
+            for (int y = 0; y < height; y++) {
+                int rowSum = 0;
+                for (int x = 0; x < width; x++) {
+                    rowSum += padded(y, x);
+                    table[(y + 1) * stride + x + 1] = table[y * stride + x + 1] + rowSum;
+                }
+            }
+            int span = 2 * reach + 1;
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    // The window of the cell at padded (row + reach, col + reach)
+                    int sum = table[(row + span) * stride + col + span] - table[row * stride + col + span]
+                            - table[(row + span) * stride + col] + table[row * stride + col];
+                    counts[row * cols + col] = sum - (rolls[row * cols + col] ? 1 : 0);
+                }
+            }
+        } else {
+            // table[y * width + x] sums the padded cells from (y, x) up and to the left along the
+            // diagonal, table[anti + y * width + x] up and to the right along the anti-diagonal
+            int[] table = table(2L * height * width);
+            int anti = height * width;
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int cell = padded(y, x);
+                    int i = y * width + x;
+                    table[i] = cell + (y > 0 && x > 0 ? table[i - width - 1] : 0);
+                    table[anti + i] = cell + (y > 0 && x + 1 < width ? table[anti + i - width + 1] : 0);
+                }
+            }
+            // The diamond around padded (reach, reach), then moved down a row at a time
+            int rowStart = 0;
+            for (int dy = -reach; dy <= reach; dy++) {
+                int span = reach - Math.abs(dy);
+                for (int dx = -span; dx <= span; dx++) {
+                    rowStart += padded(reach + dy, reach + dx);
+                }
+            }
+            for (int row = 0; row < rows; row++) {
+                int y = row + reach;
+                if (row > 0) {
+                    // Drop the top edges of the diamond around (y - 1, reach), add the bottom ones of (y, reach)
+                    rowStart += diagonal(table, width, y, 0, reach)
+                            + antiDiagonal(table, anti, width, y, 2 * reach, reach)
+                            - padded(y + reach, reach)
+                            - antiDiagonal(table, anti, width, y - 1 - reach, reach, reach)
+                            - diagonal(table, width, y - 1 - reach, reach, reach)
+                            + padded(y - 1 - reach, reach);
+                }
+                int sum = rowStart;
+                for (int col = 0; col < cols; col++) {
+                    int x = col + reach;
+                    if (col > 0) {
+                        // Drop the left edges of the diamond around (y, x - 1), add the right ones of (y, x)
+                        sum += diagonal(table, width, y - reach, x, reach)
+                                + antiDiagonal(table, anti, width, y, x + reach, reach)
+                                - padded(y, x + reach)
+                                - antiDiagonal(table, anti, width, y - reach, x - 1, reach)
+                                - diagonal(table, width, y, x - 1 - reach, reach)
+                                + padded(y, x - 1 - reach);
+                    }
+                    counts[row * cols + col] = sum - (rolls[row * cols + col] ? 1 : 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the rolls on the diagonal from padded (y, x) down and to the right, {@code length + 1} cells long
+     */
+    private static int diagonal(int[] table, int width, int y, int x, int length) {
+        int end = table[(y + length) * width + x + length];
+        return y > 0 && x > 0 ? end - table[(y - 1) * width + x - 1] : end;
+    }
+
+    /**
+     * @return the rolls on the anti-diagonal from padded (y, x) down and to the left, {@code length + 1} cells long
+     */
+    private static int antiDiagonal(int[] table, int anti, int width, int y, int x, int length) {
+        int end = table[anti + (y + length) * width + x - length];
+        return y > 0 && x + 1 < width ? end - table[anti + (y - 1) * width + x + 1] : end;
+    }
+
+    /**
+     * @return the count table, allocated on first use and kept for rebuilds
+     */
+    private int[] table(long size) {
+        if (table == null) {
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Grid too large for a count table of " + size + " cells");
+            }
+            table = new int[(int) size];
+        }
+        return table;
+    }
+
+    /**
+     * @return 1 if the padded grid holds a roll at (y, x), 0 otherwise
+     */
+    private int padded(int y, int x) {
+        int row = y - rule.radius();
+        int col = x - rule.radius();
+        if (row >= 0 && row < rows && col >= 0 && col < cols) {
+            return rolls[row * cols + col] ? 1 : 0;
+        }
+        return switch (rule.edge()) {
+            case EMPTY -> 0;
+            case FILLED -> 1;
+            case WRAP -> rolls[Math.floorMod(row, rows) * cols + Math.floorMod(col, cols)] ? 1 : 0;
+        };
+    }
+}
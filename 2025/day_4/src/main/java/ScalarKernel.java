@@ -0,0 +1,30 @@
+/**
+ * Plain loop version of {@link AccessibilityKernel}. The empty border of
+ * the grid makes every neighbour probe valid, so there are no bounds checks.
+ */
+final class ScalarKernel implements AccessibilityKernel {
+
+    @Override
+    public int markRow(byte[] cells, int offset, int stride, int cols, byte[] out, int outOffset) {
+        return markCells(cells, offset, stride, 0, cols, out, outOffset);
+    }
+
+    /**
+     * Marks columns {@code [fromCol, toCol)} of a row; shared with the
+     * vector kernel for the cells left over after its last full vector.
+     */
+    static int markCells(byte[] cells, int offset, int stride, int fromCol, int toCol,
+            byte[] out, int outOffset) {
+        int count = 0;
+        for (int col = fromCol; col < toCol; col++) {
+            int i = offset + col;
+            int adjacent = cells[i - stride - 1] + cells[i - stride] + cells[i - stride + 1]
+                    + cells[i - 1] + cells[i + 1]
+                    + cells[i + stride - 1] + cells[i + stride] + cells[i + stride + 1];
+            int accessible = adjacent < 4 ? cells[i] : 0;
+            out[outOffset + col] = (byte) accessible;
+            count += accessible;
+        }
+        return count;
+    }
+}
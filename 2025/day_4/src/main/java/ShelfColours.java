@@ -0,0 +1,71 @@
+import java.awt.image.IndexColorModel;
+
+/**
+ * Cell colours shared by the live shelf panel and exported frames.
+ * Rolls are coloured by their number of adjacent rolls.
+ */
+final class ShelfColours {
+
+    // Packed RGB
+    static final int EMPTY_RGB = 0x23232D;
+    static final int STABLE_RGB = 0x329650;
+    private static final int[] ROLL_PALETTE = new int[9];
+
+    static {
+        for (int adjacent = 0; adjacent < ROLL_PALETTE.length; adjacent++) {
+            // Accessible rolls fade from red to orange, stable ones are green
+            ROLL_PALETTE[adjacent] = adjacent >= 4
+                    ? STABLE_RGB
+                    : (255 - adjacent * 40) << 16 | 100 << 8 | 50;
+        }
+    }
+
+    private ShelfColours() {
+    }
+
+    static int rgb(boolean roll, int adjacent) {
+        return roll ? ROLL_PALETTE[adjacent] : EMPTY_RGB;
+    }
+
+    /**
+     * Blends from the empty colour to the stable roll colour by the share
+     * of a block's cells that hold a roll.
+     *
+     * @param rolls the number of rolls in the block
+     * @param area the number of cells in the block
+     */
+    static int density(int rolls, int area) {
+        int weight = area == 0 ? 0 : (int) (256L * rolls / area);
+        int rgb = 0;
+        for (int shift = 0; shift <= 16; shift += 8) {
+            int from = EMPTY_RGB >>> shift & 0xFF;
+            int to = STABLE_RGB >>> shift & 0xFF;
+            rgb |= (from + ((to - from) * weight >> 8)) << shift;
+        }
+        return rgb;
+    }
+
+    /**
+     * @return the entry of {@link #indexed()} for a cell
+     */
+    static int index(boolean roll, int adjacent) {
+        return roll ? 1 + adjacent : 0;
+    }
+
+    /**
+     * @return a colour model holding the empty colour, then the roll palette
+     */
+    static IndexColorModel indexed() {
+        int size = 1 + ROLL_PALETTE.length;
+        byte[] red = new byte[size];
+        byte[] green = new byte[size];
+        byte[] blue = new byte[size];
+        for (int i = 0; i < size; i++) {
+            int rgb = i == 0 ? EMPTY_RGB : ROLL_PALETTE[i - 1];
+            red[i] = (byte) (rgb >>> 16);
+            green[i] = (byte) (rgb >>> 8);
+            blue[i] = (byte) rgb;
+        }
+        return new IndexColorModel(8, size, red, green, blue);
+    }
+}
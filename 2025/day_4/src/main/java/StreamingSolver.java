@@ -0,0 +1,343 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Solvers that never hold the whole grid in memory. Rows are packed like
+ * {@link Bitboard} rows and pushed through a three-row window, so memory
+ * is proportional to the row width no matter how many rows there are.
+ * Part 1 streams the text once. Part 2 runs synchronous rounds, spilling
+ * the packed grid to a temp file and rewriting it once per round.
+ */
+final class StreamingSolver {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private StreamingSolver() {
+    }
+
+    /**
+     * Counts the accessible rolls of a grid file in a single pass.
+     *
+     * @param path the grid file
+     * @return the number of rolls with fewer than 4 adjacent rolls
+     * @throws IOException if the file cannot be read
+     */
+    static int countAccessible(Path path) throws IOException {
+        try (TextRows rows = new TextRows(Files.newInputStream(path))) {
+            return sweep(rows, null);
+        }
+    }
+
+    /**
+     * Removes accessible rolls in synchronous rounds until none are left,
+     * keeping the grid between rounds in temp files.
+     *
+     * @param path the grid file
+     * @return the total number of rolls removed
+     * @throws IOException if the file cannot be read or the spill fails
+     */
+    static int removeAll(Path path) throws IOException {
+        int words = measureWords(path);
+        Path current = Files.createTempFile("day4-", ".bits");
+        Path next = Files.createTempFile("day4-", ".bits");
+        try {
+            int removed;
+            try (TextRows rows = new TextRows(Files.newInputStream(path));
+                    SpillWriter out = new SpillWriter(current, words)) {
+                removed = sweep(rows, out);
+            }
+            // Every round rewrites the whole spill file
+            long cells = Files.size(current) * Byte.SIZE;
+            int totalRemoved = 0;
+            int round = 0;
+            while (removed > 0) {
+                Metrics.round("stream", ++round, removed, cells);
+                totalRemoved += removed;
+                try (SpillReader rows = new SpillReader(current, words);
+                        SpillWriter out = new SpillWriter(next, words)) {
+                    removed = sweep(rows, out);
+                }
+                Path swap = current;
+                current = next;
+                next = swap;
+            }
+            return totalRemoved;
+        } finally {
+            Files.deleteIfExists(current);
+            Files.deleteIfExists(next);
+        }
+    }
+
+    private static int measureWords(Path path) throws IOException {
+        try (TextRows rows = new TextRows(Files.newInputStream(path))) {
+            while (rows.next() != null) {
+                // Only the widest row matters
+            }
+            return rows.words();
+        }
+    }
+
+    /**
+     * Pushes every row of the source through the three-row window. Each
+     * row is decided once the row below it has arrived; if a sink is given
+     * it receives the row with its accessible rolls removed.
+     *
+     * @return the number of accessible rolls seen
+     */
+    private static int sweep(RowSource source, SpillWriter sink) throws IOException {
+        int words = 0;
+        long[] ring = new long[0];
+        long[] out = new long[0];
+        int removed = 0;
+        int row = 0;
+        long[] incoming;
+        while ((incoming = source.next()) != null) {
+            int incomingWords = source.words();
+            if (incomingWords > words) {
+                // A wider row: re-lay the window slots with the new stride
+                long[] wider = new long[3 * incomingWords];
+                for (int slot = 0; slot < 3; slot++) {
+                    System.arraycopy(ring, slot * words, wider, slot * incomingWords, words);
+                }
+                ring = wider;
+                out = new long[incomingWords];
+                words = incomingWords;
+            }
+            int offset = (row % 3) * words;
+            System.arraycopy(incoming, 0, ring, offset, incomingWords);
+            Arrays.fill(ring, offset + incomingWords, offset + words, 0L);
+            if (row > 0) {
+                removed += emit(ring, row - 1, true, words, out, sink);
+            }
+            row++;
+        }
+        if (row > 0) {
+            removed += emit(ring, row - 1, false, words, out, sink);
+        }
+        return removed;
+    }
+
+    private static int emit(long[] ring, int row, boolean hasBelow, int words,
+            long[] out, SpillWriter sink) throws IOException {
+        int offset = (row % 3) * words;
+        int above = row > 0 ? ((row - 1) % 3) * words : -1;
+        int below = hasBelow ? ((row + 1) % 3) * words : -1;
+        int removed = 0;
+        for (int w = 0; w < words; w++) {
+            long mask = Bitboard.accessibleWord(ring, above, offset, below, words, w);
+            removed += Long.bitCount(mask);
+            out[w] = ring[offset + w] & ~mask;
+        }
+        if (sink != null) {
+            sink.write(out, words);
+        }
+        return removed;
+    }
+
+    /**
+     * A sequence of packed rows. The returned array is reused between calls
+     * and is valid up to {@link #words()} words.
+     */
+    private interface RowSource extends Closeable {
+
+        long[] next() throws IOException;
+
+        int words();
+    }
+
+    /**
+     * Packs text rows on the fly, reading the input in fixed-size chunks.
+     * Blank lines before the first and after the last row are skipped, as
+     * in {@link GridInput}.
+     */
+    private static final class TextRows implements RowSource {
+
+        private final InputStream in;
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+        private int position;
+        private int limit;
+        private long[] row = new long[1];
+        private long[] blank = new long[1];
+        private int words;
+        private boolean started;
+        private int blankRows;
+        private int pendingBlankRows;
+        private boolean holding;
+
+        TextRows(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public long[] next() throws IOException {
+            if (pendingBlankRows > 0) {
+                pendingBlankRows--;
+                return blank;
+            }
+            if (holding) {
+                holding = false;
+                return row;
+            }
+            while (true) {
+                int length = readLine();
+                if (length < 0) {
+                    return null;
+                }
+                if (length == 0) {
+                    if (started) {
+                        blankRows++;
+                    }
+                    continue;
+                }
+                started = true;
+                if (blankRows > 0) {
+                    // Interior blank lines are real, empty rows
+                    pendingBlankRows = blankRows - 1;
+                    blankRows = 0;
+                    holding = true;
+                    return blank;
+                }
+                return row;
+            }
+        }
+
+        @Override
+        public int words() {
+            return words;
+        }
+
+        /**
+         * Packs the next line into {@link #row}.
+         *
+         * @return the line length without its line ending, or -1 at the end of input
+         */
+        private int readLine() throws IOException {
+            Arrays.fill(row, 0L);
+            int col = 0;
+            byte last = 0;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(chunk);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        if (col == 0) {
+                            return -1;
+                        }
+                        break;
+                    }
+                }
+                byte b = chunk[position++];
+                if (b == '\n') {
+                    break;
+                }
+                if ((col >>> 6) >= row.length) {
+                    row = Arrays.copyOf(row, row.length * 2);
+                }
+                if (b == '@') {
+                    row[col >>> 6] |= 1L << col;
+                }
+                last = b;
+                col++;
+            }
+            int length = last == '\r' ? col - 1 : col;
+            int lineWords = (length + 63) >>> 6;
+            if (lineWords > words) {
+                words = lineWords;
+                if (blank.length < words) {
+                    blank = new long[row.length];
+                }
+            }
+            return length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Writes packed rows of a fixed width to a spill file, padding
+     * narrower rows with empty cells.
+     */
+    private static final class SpillWriter implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        SpillWriter(Path path, int words) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocateDirect(words * Long.BYTES);
+        }
+
+        void write(long[] row, int count) throws IOException {
+            buffer.clear();
+            LongBuffer longs = buffer.asLongBuffer();
+            longs.put(row, 0, count);
+            while (longs.hasRemaining()) {
+                longs.put(0L);
+            }
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads back the rows of a spill file.
+     */
+    private static final class SpillReader implements RowSource {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final long[] row;
+
+        SpillReader(Path path, int words) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocateDirect(words * Long.BYTES);
+            this.row = new long[words];
+        }
+
+        @Override
+        public long[] next() throws IOException {
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    if (buffer.position() == 0) {
+                        return null;
+                    }
+                    throw new EOFException("Truncated spill file");
+                }
+            }
+            buffer.flip();
+            buffer.asLongBuffer().get(row);
+            return row;
+        }
+
+        @Override
+        public int words() {
+            return row.length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
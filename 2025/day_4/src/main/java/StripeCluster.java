@@ -0,0 +1,433 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solves a grid across several worker processes, for grids too large
+ * for one heap. The coordinator splits the grid into horizontal stripes
+ * and starts one worker JVM per stripe on this machine; each worker
+ * packs only its own rows (plus one halo row on each side) like
+ * {@link Bitboard} rows, straight from the input file.
+ *
+ * Nothing ever holds the whole grid. The coordinator streams through
+ * the file once to find where each row starts, keeping 12 bytes per
+ * row, and hands every worker the byte range of its rows and halo
+ * rows. Workers read only that range, so files past the 2 GB mapping
+ * limit work, and each heap only needs room for its own stripe. Workers
+ * get the coordinator's {@code -Xmx}, so for example a 50000 x 50000
+ * grid (a 2.5 GB file, 312 MB packed) solves with eight workers under
+ * {@code -Xmx128m}, although no single process could hold it packed.
+ *
+ * Workers run synchronous rounds: decide the stripe's removals against
+ * the current halo rows, apply them, swap boundary rows with the
+ * neighbouring stripes, then vote with their removal count. The
+ * coordinator adds up the votes and stops everyone after a round
+ * without removals. The first round's total is part 1 and the sum of
+ * all rounds is part 2, exactly as in a single process.
+ *
+ * All traffic is local TCP: every worker talks to the coordinator, and
+ * neighbouring workers are linked directly for the halo exchange.
+ */
+final class StripeCluster {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 60_000;
+    private static final int CHUNK_BYTES = 1 << 20;
+
+    private StripeCluster() {
+    }
+
+    /**
+     * Solves the grid with the given number of worker processes.
+     *
+     * @param input the grid file, which every worker reads itself
+     * @param workers the number of stripes, capped at the number of rows
+     * @return part 1 and part 2
+     * @throws IOException if a worker cannot be started or fails
+     */
+    static int[] coordinate(Path input, int workers) throws IOException {
+        Rows grid = Rows.scan(input);
+        int stripes = Math.min(workers, grid.count);
+        if (stripes == 0) {
+            return new int[] {0, 0};
+        }
+
+        List<Process> processes = new ArrayList<>();
+        List<Socket> sockets = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(0, stripes, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+            for (int i = 0; i < stripes; i++) {
+                processes.add(startWorker(server.getLocalPort()));
+            }
+
+            // Workers are numbered in the order they report in, top stripe first
+            DataInputStream[] in = new DataInputStream[stripes];
+            DataOutputStream[] out = new DataOutputStream[stripes];
+            int[] haloPorts = new int[stripes];
+            for (int i = 0; i < stripes; i++) {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                sockets.add(socket);
+                in[i] = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                out[i] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                haloPorts[i] = in[i].readInt();
+            }
+            for (int i = 0; i < stripes; i++) {
+                int from = (int) ((long) grid.count * i / stripes);
+                int to = (int) ((long) grid.count * (i + 1) / stripes);
+                // The range runs from the halo row above to the end of the halo row below
+                int first = Math.max(0, from - 1);
+                int last = Math.min(grid.count, to + 1) - 1;
+                out[i].writeInt(i);
+                out[i].writeInt(stripes);
+                out[i].writeInt(to - from);
+                out[i].writeInt(grid.cols);
+                out[i].writeLong(grid.starts[first]);
+                out[i].writeLong(grid.starts[last] + grid.lengths[last]);
+                out[i].writeInt(i > 0 ? haloPorts[i - 1] : -1);
+                out[i].writeUTF(input.toAbsolutePath().toString());
+                out[i].flush();
+            }
+
+            // Termination vote: keep going while any stripe removed a roll
+            int part1 = -1;
+            int part2 = 0;
+            int round = 0;
+            while (true) {
+                int removed = 0;
+                for (int i = 0; i < stripes; i++) {
+                    removed += in[i].readInt();
+                }
+                if (part1 < 0) {
+                    part1 = removed;
+                }
+                part2 += removed;
+                for (int i = 0; i < stripes; i++) {
+                    out[i].writeBoolean(removed > 0);
+                    out[i].flush();
+                }
+                if (removed == 0) {
+                    break;
+                }
+                Metrics.round("cluster", ++round, removed, (long) grid.count * grid.cols);
+            }
+            for (Process process : processes) {
+                process.waitFor();
+            }
+            return new int[] {part1, part2};
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for workers");
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            for (Process process : processes) {
+                process.destroy();
+            }
+        }
+    }
+
+    /**
+     * Starts a worker JVM on the same class path, with the same maximum
+     * heap as this one if it was set.
+     */
+    private static Process startWorker(int port) throws IOException {
+        String java = ProcessHandle.current().info().command()
+                .orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        List<String> command = new ArrayList<>(List.of(java));
+        for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (option.startsWith("-Xmx")) {
+                command.add(option);
+            }
+        }
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"),
+                Result.class.getName(), "--worker=" + port));
+        return new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /**
+     * Runs one worker until the coordinator calls the vote off.
+     *
+     * @param coordinatorPort the local port the coordinator listens on
+     * @throws IOException if the coordinator or a neighbour goes away
+     */
+    static void work(int coordinatorPort) throws IOException {
+        try (ServerSocket haloServer = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+             Socket coordinator = new Socket(InetAddress.getLoopbackAddress(), coordinatorPort)) {
+            coordinator.setTcpNoDelay(true);
+            DataInputStream control = new DataInputStream(new BufferedInputStream(coordinator.getInputStream()));
+            DataOutputStream vote = new DataOutputStream(new BufferedOutputStream(coordinator.getOutputStream()));
+            vote.writeInt(haloServer.getLocalPort());
+            vote.flush();
+
+            int index = control.readInt();
+            int stripes = control.readInt();
+            int rows = control.readInt();
+            int cols = control.readInt();
+            long start = control.readLong();
+            long end = control.readLong();
+            int upPort = control.readInt();
+            Stripe stripe;
+            try (FileChannel channel = FileChannel.open(Path.of(control.readUTF()), StandardOpenOption.READ)) {
+                stripe = new Stripe(channel, start, end, rows, cols, index > 0, index + 1 < stripes);
+            }
+
+            // The lower-numbered worker of each pair dials, so links form top to bottom
+            Socket up = null;
+            Socket down = null;
+            try {
+                if (index > 0) {
+                    up = new Socket(InetAddress.getLoopbackAddress(), upPort);
+                    up.setTcpNoDelay(true);
+                }
+                if (index + 1 < stripes) {
+                    haloServer.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+                    down = haloServer.accept();
+                    down.setTcpNoDelay(true);
+                }
+                Link upLink = up == null ? null : new Link(up);
+                Link downLink = down == null ? null : new Link(down);
+
+                boolean running = true;
+                while (running) {
+                    vote.writeInt(stripe.removeAccessible());
+                    vote.flush();
+                    // Pairs (0,1), (2,3)... swap first, then (1,2), (3,4)..., so no two
+                    // workers ever wait on each other; the upper end of a pair sends first
+                    for (int phase = 0; phase < 2; phase++) {
+                        if (downLink != null && index % 2 == phase) {
+                            downLink.send(stripe, stripe.rows);
+                            downLink.receive(stripe, stripe.rows + 1);
+                        }
+                        if (upLink != null && (index - 1) % 2 == phase) {
+                            upLink.receive(stripe, 0);
+                            upLink.send(stripe, 1);
+                        }
+                    }
+                    running = control.readBoolean();
+                }
+            } finally {
+                if (up != null) {
+                    up.close();
+                }
+                if (down != null) {
+                    down.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Where each row of a grid file starts and how long it is, found by
+     * streaming through the file once. Rows are delimited exactly as
+     * {@link GridInput} does, with "\n" or "\r\n" endings and blank
+     * lines at either end ignored, but positions are longs, so the file
+     * may be of any size.
+     */
+    private static final class Rows {
+
+        final long[] starts;
+        final int[] lengths;
+        final int count;
+        final int cols;
+
+        private Rows(long[] starts, int[] lengths, int count) {
+            this.starts = starts;
+            this.lengths = lengths;
+            this.count = count;
+            int widest = 0;
+            for (int row = 0; row < count; row++) {
+                widest = Math.max(widest, lengths[row]);
+            }
+            this.cols = widest;
+        }
+
+        static Rows scan(Path path) throws IOException {
+            long[] starts = new long[16];
+            int[] lengths = new int[16];
+            int rows = 0;
+            int nonBlankRows = 0;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_BYTES);
+                long size = channel.size();
+                long start = 0;
+                long position = 0;
+                byte previous = 0;
+                while (position < size) {
+                    chunk.clear();
+                    if (channel.read(chunk, position) < 0) {
+                        break;
+                    }
+                    chunk.flip();
+                    for (int i = 0; i < chunk.limit(); i++) {
+                        byte current = chunk.get(i);
+                        long end = position + i;
+                        if (current == '\n') {
+                            long length = end - start - (previous == '\r' && end > start ? 1 : 0);
+                            // Skip blank lines before the first row
+                            if (length > 0 || rows > 0) {
+                                if (rows == starts.length) {
+                                    starts = Arrays.copyOf(starts, rows * 2);
+                                    lengths = Arrays.copyOf(lengths, rows * 2);
+                                }
+                                starts[rows] = start;
+                                lengths[rows] = checkedLength(length);
+                                rows++;
+                                if (length > 0) {
+                                    nonBlankRows = rows;
+                                }
+                            }
+                            start = end + 1;
+                        }
+                        previous = current;
+                    }
+                    position += chunk.limit();
+                }
+                // A last line without a newline
+                long length = position - start - (previous == '\r' && position > start ? 1 : 0);
+                if (length > 0) {
+                    if (rows == starts.length) {
+                        starts = Arrays.copyOf(starts, rows + 1);
+                        lengths = Arrays.copyOf(lengths, rows + 1);
+                    }
+                    starts[rows] = start;
+                    lengths[rows] = checkedLength(length);
+                    nonBlankRows = ++rows;
+                }
+            }
+            // Drop blank lines after the last row
+            return new Rows(starts, lengths, nonBlankRows);
+        }
+
+        private static int checkedLength(long length) throws IOException {
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Row too long: " + length + " bytes");
+            }
+            return (int) length;
+        }
+    }
+
+    /**
+     * A worker's rows, packed with one halo row above and below. Local
+     * row 0 is the row above the stripe and local row {@code rows + 1}
+     * the row below; they only exist when the stripe has a neighbour.
+     */
+    private static final class Stripe {
+
+        final int rows;
+        final int words;
+        private final boolean hasAbove;
+        private final boolean hasBelow;
+        private final long[] cells;
+        private final long[] removed;
+
+        /**
+         * Packs the stripe from its byte range of the grid file, which
+         * starts at the first halo row (or the stripe's first row at the
+         * top of the grid) and ends after the last one.
+         */
+        Stripe(FileChannel channel, long start, long end, int rows, int cols,
+                boolean hasAbove, boolean hasBelow) throws IOException {
+            this.rows = rows;
+            this.words = (cols + 63) >>> 6;
+            this.hasAbove = hasAbove;
+            this.hasBelow = hasBelow;
+            this.cells = new long[(rows + 2) * words];
+            this.removed = new long[cells.length];
+
+            ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_BYTES);
+            int base = (hasAbove ? 0 : 1) * words;
+            int col = 0;
+            for (long position = start; position < end; ) {
+                chunk.clear().limit((int) Math.min(chunk.capacity(), end - position));
+                if (channel.read(chunk, position) < 0) {
+                    throw new EOFException("Grid file shrank while reading rows");
+                }
+                chunk.flip();
+                position += chunk.remaining();
+                while (chunk.hasRemaining()) {
+                    byte cell = chunk.get();
+                    if (cell == '\n') {
+                        base += words;
+                        col = 0;
+                    } else {
+                        if (cell == '@') {
+                            cells[base + (col >>> 6)] |= 1L << col;
+                        }
+                        col++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Runs one synchronous round over the stripe's own rows.
+         *
+         * @return the number of rolls removed
+         */
+        int removeAccessible() {
+            int count = 0;
+            for (int row = 1; row <= rows; row++) {
+                int above = row > 1 || hasAbove ? (row - 1) * words : -1;
+                int below = row < rows || hasBelow ? (row + 1) * words : -1;
+                int offset = row * words;
+                for (int w = 0; w < words; w++) {
+                    long mask = Bitboard.accessibleWord(cells, above, offset, below, words, w);
+                    removed[offset + w] = mask;
+                    count += Long.bitCount(mask);
+                }
+            }
+            if (count > 0) {
+                for (int i = words; i < (rows + 1) * words; i++) {
+                    cells[i] &= ~removed[i];
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * One end of the connection between two neighbouring stripes.
+     */
+    private static final class Link {
+
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        Link(Socket socket) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        void send(Stripe stripe, int localRow) throws IOException {
+            for (int w = 0; w < stripe.words; w++) {
+                out.writeLong(stripe.cells[localRow * stripe.words + w]);
+            }
+            out.flush();
+        }
+
+        void receive(Stripe stripe, int localRow) throws IOException {
+            for (int w = 0; w < stripe.words; w++) {
+                stripe.cells[localRow * stripe.words + w] = in.readLong();
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse grid made of 64x64 tiles, where only tiles holding rolls are
+ * stored. Each tile row is a single word, so the {@link Bitboard} kernel
+ * applies directly with the edge words taken from the neighbouring tiles.
+ * Memory follows the number of occupied tiles rather than the bounding
+ * box, and part 2 only revisits tiles next to a change in the previous
+ * round; tiles that become empty are dropped.
+ */
+final class TiledGrid {
+
+    private static final int TILE = 64;
+
+    final int rows;
+    final int cols;
+    private final Map<Long, Tile> tiles = new HashMap<>();
+
+    private TiledGrid(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Packs the rolls of the given grid into tiles.
+     *
+     * @param input the grid to pack
+     * @return the tiled grid
+     */
+    static TiledGrid from(GridInput input) {
+        TiledGrid grid = new TiledGrid(input.rows, input.cols);
+        Tile[] band = new Tile[(input.cols + TILE - 1) / TILE];
+        for (int row = 0; row < input.rows; row++) {
+            if (row % TILE == 0) {
+                Arrays.fill(band, null);
+            }
+            int length = input.length(row);
+            for (int col = 0; col < length; col++) {
+                if (input.at(row, col) == '@') {
+                    Tile tile = band[col / TILE];
+                    if (tile == null) {
+                        tile = new Tile(row / TILE, col / TILE);
+                        band[col / TILE] = tile;
+                        grid.tiles.put(tile.key(), tile);
+                    }
+                    tile.bits[row % TILE] |= 1L << col;
+                }
+            }
+        }
+        for (Tile tile : grid.tiles.values()) {
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    tile.neighbours[(dr + 1) * 3 + dc + 1] =
+                            grid.tiles.get(key(tile.tileRow + dr, tile.tileCol + dc));
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @return the number of tiles currently stored
+     */
+    int tileCount() {
+        return tiles.size();
+    }
+
+    /**
+     * @return the number of rolls with fewer than 4 adjacent rolls
+     */
+    int countAccessible() {
+        int count = 0;
+        for (Tile tile : tiles.values()) {
+            count += tile.markAccessible();
+        }
+        return count;
+    }
+
+    /**
+     * Removes accessible rolls in synchronous rounds until none are left.
+     * The grid is consumed in the process.
+     *
+     * @return the total number of rolls removed
+     */
+    int removeAll() {
+        List<Tile> active = new ArrayList<>(tiles.values());
+        List<Tile> changed = new ArrayList<>();
+        int totalRemoved = 0;
+        int round = 0;
+
+        while (!active.isEmpty()) {
+            // Decide every active tile against the same snapshot
+            changed.clear();
+            int removedThisRound = 0;
+            for (Tile tile : active) {
+                tile.active = false;
+                int count = tile.markAccessible();
+                if (count > 0) {
+                    changed.add(tile);
+                    removedThisRound += count;
+                }
+            }
+            if (removedThisRound > 0) {
+                Metrics.round("sparse", ++round, removedThisRound, (long) active.size() * TILE * TILE);
+            }
+            totalRemoved += removedThisRound;
+
+            // Apply, then only tiles around a change can change next round
+            List<Tile> next = new ArrayList<>();
+            for (Tile tile : changed) {
+                tile.applyRemovals();
+            }
+            for (Tile tile : changed) {
+                for (Tile neighbour : tile.neighbours) {
+                    if (neighbour != null && !neighbour.active) {
+                        neighbour.active = true;
+                        next.add(neighbour);
+                    }
+                }
+            }
+            for (Tile tile : changed) {
+                if (tile.isEmpty()) {
+                    drop(tile);
+                }
+            }
+            next.removeIf(tile -> tile.dropped);
+            active = next;
+        }
+        return totalRemoved;
+    }
+
+    private void drop(Tile tile) {
+        tiles.remove(tile.key());
+        tile.dropped = true;
+        for (int i = 0; i < tile.neighbours.length; i++) {
+            Tile neighbour = tile.neighbours[i];
+            if (neighbour != null && neighbour != tile) {
+                // The neighbour sees this tile from the opposite direction
+                neighbour.neighbours[8 - i] = null;
+            }
+        }
+    }
+
+    private static long key(int tileRow, int tileCol) {
+        return ((long) tileRow << 32) | (tileCol & 0xFFFFFFFFL);
+    }
+
+    /**
+     * One 64x64 block of cells, with links to the 3x3 block of tiles
+     * around it (including itself at the centre, null where absent).
+     */
+    private static final class Tile {
+
+        private static final int NORTH_WEST = 0;
+        private static final int NORTH = 1;
+        private static final int NORTH_EAST = 2;
+        private static final int WEST = 3;
+        private static final int CENTER = 4;
+        private static final int EAST = 5;
+        private static final int SOUTH_WEST = 6;
+        private static final int SOUTH = 7;
+        private static final int SOUTH_EAST = 8;
+
+        final int tileRow;
+        final int tileCol;
+        final long[] bits = new long[TILE];
+        final long[] removed = new long[TILE];
+        final Tile[] neighbours = new Tile[9];
+        boolean active = true;
+        boolean dropped;
+
+        Tile(int tileRow, int tileCol) {
+            this.tileRow = tileRow;
+            this.tileCol = tileCol;
+        }
+
+        long key() {
+            return TiledGrid.key(tileRow, tileCol);
+        }
+
+        /**
+         * Records the accessible rolls of every row in {@link #removed}.
+         *
+         * @return the number of accessible rolls in the tile
+         */
+        int markAccessible() {
+            int count = 0;
+            for (int r = 0; r < TILE; r++) {
+                boolean top = r == 0;
+                boolean bottom = r == TILE - 1;
+                int above = top ? TILE - 1 : r - 1;
+                int below = bottom ? 0 : r + 1;
+                long mask = Bitboard.accessibleMask(
+                        word(top ? NORTH_WEST : WEST, above),
+                        word(top ? NORTH : CENTER, above),
+                        word(top ? NORTH_EAST : EAST, above),
+                        word(WEST, r), bits[r], word(EAST, r),
+                        word(bottom ? SOUTH_WEST : WEST, below),
+                        word(bottom ? SOUTH : CENTER, below),
+                        word(bottom ? SOUTH_EAST : EAST, below));
+                removed[r] = mask;
+                count += Long.bitCount(mask);
+            }
+            return count;
+        }
+
+        void applyRemovals() {
+            for (int r = 0; r < TILE; r++) {
+                bits[r] &= ~removed[r];
+            }
+        }
+
+        boolean isEmpty() {
+            for (long word : bits) {
+                if (word != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long word(int direction, int row) {
+            Tile tile = neighbours[direction];
+            return tile == null ? 0 : tile.bits[row];
+        }
+    }
+}
@@ -0,0 +1,41 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API version of {@link AccessibilityKernel}. The eight
+ * neighbour rows are loaded as shifted byte vectors, summed lane-wise and
+ * compared against the threshold, so a whole vector of cells is decided at
+ * once. Needs {@code --add-modules jdk.incubator.vector} to compile and run;
+ * {@link ByteGridSolver} loads it reflectively and uses the scalar kernel
+ * otherwise.
+ */
+final class VectorKernel implements AccessibilityKernel {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    @Override
+    public int markRow(byte[] cells, int offset, int stride, int cols, byte[] out, int outOffset) {
+        int count = 0;
+        int bound = SPECIES.loopBound(cols);
+        int col = 0;
+        for (; col < bound; col += SPECIES.length()) {
+            int i = offset + col;
+            ByteVector adjacent = ByteVector.fromArray(SPECIES, cells, i - stride - 1)
+                    .add(ByteVector.fromArray(SPECIES, cells, i - stride))
+                    .add(ByteVector.fromArray(SPECIES, cells, i - stride + 1))
+                    .add(ByteVector.fromArray(SPECIES, cells, i - 1))
+                    .add(ByteVector.fromArray(SPECIES, cells, i + 1))
+                    .add(ByteVector.fromArray(SPECIES, cells, i + stride - 1))
+                    .add(ByteVector.fromArray(SPECIES, cells, i + stride))
+                    .add(ByteVector.fromArray(SPECIES, cells, i + stride + 1));
+            ByteVector center = ByteVector.fromArray(SPECIES, cells, i);
+            VectorMask<Byte> accessible = adjacent.compare(VectorOperators.LT, (byte) 4)
+                    .and(center.compare(VectorOperators.NE, (byte) 0));
+            ByteVector.zero(SPECIES).blend((byte) 1, accessible).intoArray(out, outOffset + col);
+            count += accessible.trueCount();
+        }
+        return count + ScalarKernel.markCells(cells, offset, stride, col, cols, out, outOffset);
+    }
+}
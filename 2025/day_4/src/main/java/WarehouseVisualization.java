@@ -0,0 +1,755 @@
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import javax.swing.*;
+
+/**
+ * GUI Visualization for Part 2 - Warehouse Shelf Roll Removal
+ */
+class WarehouseVisualization extends JFrame {
+
+    static final int CELL_SIZE = 5;
+    static final int ANIMATION_DELAY = 100;
+    static final int MAX_VIEW_SIZE = 600;
+    static final double MAX_SCALE = 40;
+    // Changed cells are repainted in square tiles of this many cells a side
+    static final int TILE = 32;
+    static final int MAX_DIRTY_RECTS = 64;
+
+    private final RemovalTimeline timeline;
+    // Follows the round shown on the EDT, not the one the step worker is diffing
+    private final DensityPyramid density;
+    private final int rows;
+    private final int cols;
+    private int iteration = 0;
+    private int totalRemoved = 0;
+    private int removedThisRound = 0;
+    private int remaining = 0;
+    private boolean isRunning = false;
+    private boolean isFinished = false;
+
+    // The round the last frame was diffed to; only the step worker touches it while one is in flight
+    private int shownRound = 0;
+    private boolean stepInFlight = false;
+    private int pendingSeek = -1;
+    private boolean updatingTimeline = false;
+
+    private final ShelfPanel shelfPanel;
+    private final StoragePanel storagePanel;
+    private final JLabel statsLabel;
+    private final JButton startButton;
+    private final JButton resetButton;
+    private final JSlider speedSlider;
+    private final JSlider timelineSlider;
+    private Timer animationTimer;
+
+    public WarehouseVisualization(RemovalTimeline timeline) {
+        super("🎄 Advent of Code 2025 - Day 4 Visualization");
+
+        // Everything shown is read from the timeline
+        this.timeline = timeline;
+        rows = timeline.rows;
+        cols = timeline.cols;
+        density = new DensityPyramid(timeline, 0);
+        remaining = timeline.rollCount();
+
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLayout(new BorderLayout(10, 10));
+        getContentPane().setBackground(new Color(30, 30, 40));
+
+        // Title panel
+        JPanel titlePanel = new JPanel();
+        titlePanel.setBackground(new Color(30, 30, 40));
+        JLabel titleLabel = new JLabel("Removing Rolls from the Warehouse Shelf");
+        titleLabel.setFont(new Font("SansSerif", Font.BOLD, 20));
+        titleLabel.setForeground(new Color(100, 200, 255));
+        titlePanel.add(titleLabel);
+        add(titlePanel, BorderLayout.NORTH);
+
+        // Main visualization panel
+        JPanel mainPanel = new JPanel(new BorderLayout(20, 10));
+        mainPanel.setBackground(new Color(30, 30, 40));
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+
+        // Shelf panel (main grid)
+        shelfPanel = new ShelfPanel();
+        JPanel shelfContainer = new JPanel(new BorderLayout());
+        shelfContainer.setBackground(new Color(30, 30, 40));
+        shelfContainer.setBorder(BorderFactory.createTitledBorder(
+                BorderFactory.createLineBorder(new Color(100, 150, 200), 2),
+                "Warehouse Shelf",
+                0, 0,
+                new Font("SansSerif", Font.BOLD, 14),
+                new Color(200, 200, 100)
+        ));
+        shelfContainer.add(shelfPanel, BorderLayout.CENTER);
+        mainPanel.add(shelfContainer, BorderLayout.CENTER);
+
+        // Storage panel (removed rolls)
+        storagePanel = new StoragePanel();
+        JPanel storageContainer = new JPanel(new BorderLayout());
+        storageContainer.setBackground(new Color(30, 30, 40));
+        storageContainer.setBorder(BorderFactory.createTitledBorder(
+                BorderFactory.createLineBorder(new Color(100, 200, 100), 2),
+                "Storage Area",
+                0, 0,
+                new Font("SansSerif", Font.BOLD, 14),
+                new Color(100, 200, 100)
+        ));
+        storageContainer.setPreferredSize(new Dimension(200, 0));
+        storageContainer.add(storagePanel, BorderLayout.CENTER);
+        mainPanel.add(storageContainer, BorderLayout.EAST);
+
+        add(mainPanel, BorderLayout.CENTER);
+
+        // Control panel
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 10));
+        controlPanel.setBackground(new Color(40, 40, 50));
+
+        startButton = new JButton("▶ Start");
+        startButton.setFont(new Font("SansSerif", Font.BOLD, 14));
+        startButton.setBackground(new Color(80, 150, 80));
+        startButton.setForeground(Color.WHITE);
+        startButton.setFocusPainted(false);
+        startButton.addActionListener(e -> toggleAnimation());
+        controlPanel.add(startButton);
+
+        resetButton = new JButton("↺ Reset");
+        resetButton.setFont(new Font("SansSerif", Font.BOLD, 14));
+        resetButton.setBackground(new Color(150, 100, 80));
+        resetButton.setForeground(Color.WHITE);
+        resetButton.setFocusPainted(false);
+        resetButton.addActionListener(e -> resetSimulation());
+        controlPanel.add(resetButton);
+
+        JLabel speedLabel = new JLabel("Speed:");
+        speedLabel.setForeground(Color.WHITE);
+        controlPanel.add(speedLabel);
+
+        speedSlider = new JSlider(10, 500, ANIMATION_DELAY);
+        speedSlider.setInverted(true);
+        speedSlider.setBackground(new Color(40, 40, 50));
+        speedSlider.setForeground(Color.WHITE);
+        speedSlider.setPreferredSize(new Dimension(150, 30));
+        speedSlider.addChangeListener(e -> {
+            if (animationTimer != null) {
+                animationTimer.setDelay(speedSlider.getValue());
+            }
+        });
+        controlPanel.add(speedSlider);
+
+        JLabel timelineLabel = new JLabel("Iteration:");
+        timelineLabel.setForeground(Color.WHITE);
+        controlPanel.add(timelineLabel);
+
+        // The last position is the final, empty round that ends the run
+        timelineSlider = new JSlider(0, timeline.rounds() + 1, 0);
+        timelineSlider.setBackground(new Color(40, 40, 50));
+        timelineSlider.setForeground(Color.WHITE);
+        timelineSlider.setPreferredSize(new Dimension(200, 30));
+        timelineSlider.addChangeListener(e -> {
+            if (!updatingTimeline) {
+                pauseAnimation();
+                seek(timelineSlider.getValue());
+            }
+        });
+        controlPanel.add(timelineSlider);
+
+        add(controlPanel, BorderLayout.SOUTH);
+
+        // Stats panel
+        JPanel statsPanel = new JPanel();
+        statsPanel.setBackground(new Color(30, 30, 40));
+        statsLabel = new JLabel(getStatsText());
+        statsLabel.setFont(new Font("Monospaced", Font.BOLD, 14));
+        statsLabel.setForeground(new Color(200, 200, 200));
+        statsPanel.add(statsLabel);
+        mainPanel.add(statsPanel, BorderLayout.SOUTH);
+
+        // Setup animation timer
+        animationTimer = new Timer(ANIMATION_DELAY, e -> runIteration());
+
+        pack();
+        setMinimumSize(new Dimension(900, 700));
+        setLocationRelativeTo(null);
+        setVisible(true);
+    }
+
+    private String getStatsText() {
+        return String.format("Iteration: %d  |  Removed this round: %d  |  Total removed: %d  |  Remaining: %d",
+                iteration, removedThisRound, totalRemoved, remaining);
+    }
+
+    private void toggleAnimation() {
+        if (isFinished) {
+            resetSimulation();
+            return;
+        }
+
+        if (isRunning) {
+            pauseAnimation();
+        } else {
+            animationTimer.setDelay(speedSlider.getValue());
+            animationTimer.start();
+            isRunning = true;
+            startButton.setText("⏸ Pause");
+            startButton.setBackground(new Color(200, 150, 50));
+        }
+    }
+
+    private void pauseAnimation() {
+        animationTimer.stop();
+        isRunning = false;
+        if (!isFinished) {
+            startButton.setText("▶ Start");
+            startButton.setBackground(new Color(80, 150, 80));
+        }
+    }
+
+    private void resetSimulation() {
+        animationTimer.stop();
+        isRunning = false;
+        seek(0);
+    }
+
+    /**
+     * Timer tick on the EDT: plays the next round, unless the previous
+     * frame has not been published yet.
+     */
+    private void runIteration() {
+        if (isFinished) {
+            animationTimer.stop();
+            return;
+        }
+        if (stepInFlight) {
+            return; // Drop the tick rather than queue up rounds
+        }
+        seek(iteration + 1);
+    }
+
+    /**
+     * Shows the state after the given round, computed on a background
+     * worker. Requests made while a step is in flight are coalesced and
+     * run once it has been published.
+     *
+     * @param round the round to show, 0 for the initial state
+     */
+    private void seek(int round) {
+        if (stepInFlight) {
+            pendingSeek = round;
+            return;
+        }
+        stepInFlight = true;
+        new SimulationStep(round).execute();
+    }
+
+    /**
+     * Works out which tiles of the grid change between the last frame
+     * and the given round. Runs on the worker thread. A cell's colour
+     * depends on its neighbours, so each roll removed in between dirties
+     * the tiles its 3x3 neighbourhood touches; a jump that removes more
+     * rolls than there are tiles dirties the whole grid instead.
+     *
+     * @param target the round to show
+     * @return the finished frame
+     */
+    private Frame step(int target) {
+        int tilesAcross = (cols + TILE - 1) / TILE;
+        int tilesDown = (rows + TILE - 1) / TILE;
+        int from = timeline.removedBy(Math.min(shownRound, target));
+        int to = timeline.removedBy(Math.max(shownRound, target));
+        BitSet dirty = null;
+        if (to - from <= tilesAcross * tilesDown) {
+            dirty = new BitSet(tilesAcross * tilesDown);
+            for (int i = from; i < to; i++) {
+                int cell = timeline.removedCell(i);
+                int row = cell / cols;
+                int col = cell % cols;
+                int toTileRow = Math.min(row + 1, rows - 1) / TILE;
+                int toTileCol = Math.min(col + 1, cols - 1) / TILE;
+                for (int tileRow = Math.max(row - 1, 0) / TILE; tileRow <= toTileRow; tileRow++) {
+                    for (int tileCol = Math.max(col - 1, 0) / TILE; tileCol <= toTileCol; tileCol++) {
+                        dirty.set(tileRow * tilesAcross + tileCol);
+                    }
+                }
+            }
+        }
+        shownRound = target;
+        return new Frame(target, dirty);
+    }
+
+    /**
+     * Publishes a finished frame. Runs on the EDT.
+     */
+    private void showFrame(Frame frame) {
+        updateDensity(iteration, frame.round());
+        iteration = frame.round();
+        removedThisRound = timeline.removedInRound(iteration);
+        totalRemoved = timeline.removedBy(iteration);
+        remaining = timeline.rollCount() - totalRemoved;
+        shelfPanel.flip(frame.dirty());
+
+        isFinished = iteration > timeline.rounds();
+        if (isFinished) {
+            isRunning = false;
+            animationTimer.stop();
+            startButton.setText("✓ Done - Click to Reset");
+            startButton.setBackground(new Color(100, 180, 100));
+        } else if (!isRunning) {
+            startButton.setText("▶ Start");
+            startButton.setBackground(new Color(80, 150, 80));
+        }
+
+        updatingTimeline = true;
+        timelineSlider.setValue(iteration);
+        updatingTimeline = false;
+        statsLabel.setText(getStatsText());
+        storagePanel.repaint();
+    }
+
+    /**
+     * Moves the density pyramid between two rounds by adding back or
+     * taking away only the rolls removed in between. Runs on the EDT.
+     */
+    private void updateDensity(int from, int to) {
+        int delta = to > from ? -1 : 1;
+        int start = timeline.removedBy(Math.min(from, to));
+        int end = timeline.removedBy(Math.max(from, to));
+        for (int i = start; i < end; i++) {
+            int cell = timeline.removedCell(i);
+            density.update(cell / cols, cell % cols, delta);
+        }
+    }
+
+    /**
+     * One frame as handed from the worker to the EDT.
+     *
+     * @param round the round the frame shows
+     * @param dirty tiles, numbered row by row, whose cells may have
+     *     changed colour, or null if the whole grid may have
+     */
+    private record Frame(int round, BitSet dirty) {
+    }
+
+    /**
+     * Runs {@link #step(int)} off the EDT and publishes its frame.
+     */
+    private final class SimulationStep extends SwingWorker<Frame, Void> {
+
+        private final int target;
+
+        SimulationStep(int target) {
+            this.target = target;
+        }
+
+        @Override
+        protected Frame doInBackground() {
+            return step(target);
+        }
+
+        @Override
+        protected void done() {
+            stepInFlight = false;
+            try {
+                showFrame(get());
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException("Simulation step failed", e);
+            }
+            if (pendingSeek >= 0) {
+                int round = pendingSeek;
+                pendingSeek = -1;
+                seek(round);
+            }
+        }
+    }
+
+    /**
+     * Panel that displays the warehouse shelf grid. Nothing is kept per
+     * cell: every paint colours only the cells inside the clip, read from
+     * the timeline at the round shown, into a scratch raster that is then
+     * scaled up, so the grid size is bounded by the timeline rather than
+     * by the panel's rasters.
+     *
+     * The view starts fitted to the panel and can be zoomed with the mouse
+     * wheel, dragged to pan, and fitted again with a double click. Once a
+     * cell is smaller than a pixel the panel paints one pixel per block of
+     * the density pyramid instead, so a frame costs as much as the pixels
+     * on screen however large the grid is.
+     */
+    class ShelfPanel extends JPanel {
+
+        // Pixels per cell, and the cell coordinates at the panel's top left corner
+        private double scale = CELL_SIZE;
+        private double originX;
+        private double originY;
+        private boolean fitted = true;
+
+        // Scratch raster for the visible part of a frame, one pixel per cell or pyramid block
+        private BufferedImage scratch;
+        private int[] scratchPixels;
+
+        public ShelfPanel() {
+            setBackground(new Color(20, 20, 30));
+            setPreferredSize(new Dimension(Math.min(cols * CELL_SIZE, MAX_VIEW_SIZE) + 20,
+                    Math.min(rows * CELL_SIZE, MAX_VIEW_SIZE) + 20));
+
+            MouseAdapter navigation = new MouseAdapter() {
+                private Point last;
+
+                @Override
+                public void mousePressed(MouseEvent e) {
+                    last = e.getPoint();
+                }
+
+                @Override
+                public void mouseDragged(MouseEvent e) {
+                    if (last != null) {
+                        updateViewport();
+                        fitted = false;
+                        originX -= (e.getX() - last.x) / scale;
+                        originY -= (e.getY() - last.y) / scale;
+                        last = e.getPoint();
+                        repaint();
+                    }
+                }
+
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if (e.getClickCount() == 2) {
+                        fitted = true;
+                        repaint();
+                    }
+                }
+
+                @Override
+                public void mouseWheelMoved(MouseWheelEvent e) {
+                    zoom(e.getX(), e.getY(), Math.pow(1.25, -e.getPreciseWheelRotation()));
+                }
+            };
+            addMouseListener(navigation);
+            addMouseMotionListener(navigation);
+            addMouseWheelListener(navigation);
+        }
+
+        /**
+         * Zooms by the given factor, keeping the cell under the pointer in
+         * place. Zooming out stops once the whole grid is a few pixels
+         * across.
+         */
+        private void zoom(int x, int y, double factor) {
+            updateViewport();
+            fitted = false;
+            double cellX = originX + x / scale;
+            double cellY = originY + y / scale;
+            double smallest = 4.0 / Math.max(1, Math.max(rows, cols));
+            scale = Math.max(smallest, Math.min(MAX_SCALE, scale * factor));
+            originX = cellX - x / scale;
+            originY = cellY - y / scale;
+            repaint();
+        }
+
+        /**
+         * While the view is fitted, sizes and centres it for the current
+         * panel size, never zooming in beyond {@code CELL_SIZE}.
+         */
+        private void updateViewport() {
+            if (!fitted || rows == 0 || cols == 0) {
+                return;
+            }
+            int width = Math.max(1, getWidth() - 20);
+            int height = Math.max(1, getHeight() - 20);
+            scale = Math.min(CELL_SIZE, Math.min((double) width / cols, (double) height / rows));
+            originX = cols / 2.0 - getWidth() / (2 * scale);
+            originY = rows / 2.0 - getHeight() / (2 * scale);
+        }
+
+        private int screenX(double col) {
+            return (int) Math.floor((col - originX) * scale);
+        }
+
+        private int screenY(double row) {
+            return (int) Math.floor((row - originY) * scale);
+        }
+
+        /**
+         * Repaints the tiles of a new frame that are on screen. Runs of
+         * adjacent dirty tiles along a tile row are painted as one
+         * rectangle, and if that still leaves more than
+         * {@code MAX_DIRTY_RECTS} each tile row is painted as one span.
+         * The rectangles are painted right away rather than queued with
+         * {@link #repaint}, which would merge them into their bounding box.
+         *
+         * @param dirty the frame's dirty tiles, or null for the whole grid
+         */
+        void flip(BitSet dirty) {
+            if (dirty != null && dirty.isEmpty()) {
+                return;
+            }
+            updateViewport();
+            if (dirty == null || scale < 1) {
+                // Pyramid blocks can span several tiles, and the whole overview costs a frame of pixels anyway
+                repaint();
+                return;
+            }
+
+            // Only tiles overlapping the panel are worth painting
+            int tilesAcross = (cols + TILE - 1) / TILE;
+            int fromTileCol = Math.max(0, (int) Math.floor(originX / TILE));
+            int toTileCol = Math.min(tilesAcross, (int) Math.ceil((originX + getWidth() / scale) / TILE));
+            int fromTileRow = Math.max(0, (int) Math.floor(originY / TILE));
+            int toTileRow = Math.min((rows + TILE - 1) / TILE,
+                    (int) Math.ceil((originY + getHeight() / scale) / TILE));
+            List<Rectangle> runs = new ArrayList<>();
+            List<Rectangle> spans = new ArrayList<>();
+            for (int tileRow = fromTileRow; tileRow < toTileRow; tileRow++) {
+                int base = tileRow * tilesAcross;
+                int first = -1;
+                int last = -1;
+                int start = dirty.nextSetBit(base + fromTileCol);
+                while (start >= 0 && start < base + toTileCol) {
+                    int end = Math.min(dirty.nextClearBit(start), base + toTileCol);
+                    runs.add(tileRect(tileRow, start - base, end - base));
+                    first = first < 0 ? start - base : first;
+                    last = end - base;
+                    start = dirty.nextSetBit(end);
+                }
+                if (first >= 0) {
+                    spans.add(tileRect(tileRow, first, last));
+                }
+            }
+            for (Rectangle rect : runs.size() <= MAX_DIRTY_RECTS ? runs : spans) {
+                paintImmediately(rect);
+            }
+        }
+
+        /**
+         * @return the screen rectangle covering tiles {@code fromTileCol}
+         *     up to {@code toTileCol} of a tile row
+         */
+        private Rectangle tileRect(int tileRow, int fromTileCol, int toTileCol) {
+            int x = screenX(fromTileCol * TILE);
+            int y = screenY(tileRow * TILE);
+            int right = screenX(Math.min(cols, toTileCol * TILE));
+            int bottom = screenY(Math.min(rows, (tileRow + 1) * TILE));
+            return new Rectangle(x, y, right - x + 1, bottom - y + 1);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Metrics.FrameRenderEvent event = Metrics.recording() ? new Metrics.FrameRenderEvent() : null;
+            long start = Metrics.ENABLED ? System.nanoTime() : 0;
+            if (event != null) {
+                event.begin();
+            }
+            super.paintComponent(g);
+            Graphics2D g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+
+            updateViewport();
+
+            // Draw only the cells inside the clip, coloured from the timeline or the pyramid
+            Rectangle clip = g2d.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+            int cells = scale >= 1 ? paintCells(g2d, clip) : paintOverview(g2d, clip);
+
+            // Draw border
+            g2d.setColor(new Color(80, 80, 100));
+            g2d.drawRect(screenX(0) - 1, screenY(0) - 1,
+                    screenX(cols) - screenX(0) + 1, screenY(rows) - screenY(0) + 1);
+
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.round = iteration;
+                    event.cells = cells;
+                    event.commit();
+                }
+            }
+            if (Metrics.ENABLED) {
+                Metrics.frame(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Makes sure the scratch raster holds at least the given size.
+         *
+         * @return the scratch pixels, {@code scratch.getWidth()} to a row
+         */
+        private int[] scratch(int width, int height) {
+            if (scratch == null || scratch.getWidth() < width || scratch.getHeight() < height) {
+                int scratchWidth = Math.max(width, scratch == null ? 0 : scratch.getWidth());
+                int scratchHeight = Math.max(height, scratch == null ? 0 : scratch.getHeight());
+                scratch = new BufferedImage(scratchWidth, scratchHeight, BufferedImage.TYPE_INT_RGB);
+                scratchPixels = ((DataBufferInt) scratch.getRaster().getDataBuffer()).getData();
+            }
+            return scratchPixels;
+        }
+
+        /**
+         * Draws the visible cells at the round shown, one cell to a
+         * square of at least one pixel.
+         *
+         * @return the number of cells drawn
+         */
+        private int paintCells(Graphics2D g2d, Rectangle clip) {
+            int fromCol = Math.max(0, (int) Math.floor(originX + clip.x / scale));
+            int toCol = Math.min(cols, (int) Math.ceil(originX + (clip.x + clip.width) / scale));
+            int fromRow = Math.max(0, (int) Math.floor(originY + clip.y / scale));
+            int toRow = Math.min(rows, (int) Math.ceil(originY + (clip.y + clip.height) / scale));
+            if (fromCol >= toCol || fromRow >= toRow) {
+                return 0;
+            }
+
+            int width = toCol - fromCol;
+            int height = toRow - fromRow;
+            int[] pixels = scratch(width, height);
+            int stride = scratch.getWidth();
+            for (int row = fromRow; row < toRow; row++) {
+                int offset = (row - fromRow) * stride - fromCol;
+                for (int col = fromCol; col < toCol; col++) {
+                    boolean roll = timeline.isRoll(row, col, iteration);
+                    pixels[offset + col] = ShelfColours.rgb(roll,
+                            roll ? timeline.adjacentRolls(row, col, iteration) : 0);
+                }
+            }
+            g2d.drawImage(scratch,
+                    screenX(fromCol), screenY(fromRow), screenX(toCol), screenY(toRow),
+                    0, 0, width, height, null);
+            return width * height;
+        }
+
+        /**
+         * Draws the visible part of the grid zoomed out, colouring one
+         * pixel per block of the finest pyramid level whose blocks are at
+         * least a pixel wide.
+         *
+         * @return the number of blocks drawn
+         */
+        private int paintOverview(Graphics2D g2d, Rectangle clip) {
+            int level = density.levelFor(scale);
+            int block = 1 << level;
+            int fromX = Math.max(0, (int) Math.floor((originX + clip.x / scale) / block));
+            int toX = Math.min(density.width(level),
+                    (int) Math.ceil((originX + (clip.x + clip.width) / scale) / block));
+            int fromY = Math.max(0, (int) Math.floor((originY + clip.y / scale) / block));
+            int toY = Math.min(density.height(level),
+                    (int) Math.ceil((originY + (clip.y + clip.height) / scale) / block));
+            if (fromX >= toX || fromY >= toY) {
+                return 0;
+            }
+
+            int width = toX - fromX;
+            int height = toY - fromY;
+            int[] pixels = scratch(width, height);
+            int stride = scratch.getWidth();
+            for (int y = fromY; y < toY; y++) {
+                int offset = (y - fromY) * stride - fromX;
+                for (int x = fromX; x < toX; x++) {
+                    pixels[offset + x] = ShelfColours.density(
+                            density.count(level, x, y), density.area(level, x, y));
+                }
+            }
+
+            // Blocks along the right and bottom edges can be partial, so clip to the grid
+            Shape previous = g2d.getClip();
+            g2d.clipRect(screenX(0), screenY(0), screenX(cols) - screenX(0), screenY(rows) - screenY(0));
+            g2d.drawImage(scratch,
+                    screenX(fromX * block), screenY(fromY * block),
+                    screenX(toX * block), screenY(toY * block),
+                    0, 0, width, height, null);
+            g2d.setClip(previous);
+            return width * height;
+        }
+    }
+
+    /**
+     * Panel that displays the storage area with removed rolls. The rolls
+     * removed per round are plotted for the whole run so far, downsampled
+     * to one point per pixel column once there are more rounds than that.
+     */
+    class StoragePanel extends JPanel {
+
+        private final Font totalFont = new Font("SansSerif", Font.BOLD, 14);
+        private final Font labelFont = new Font("Monospaced", Font.PLAIN, 11);
+        private final Color lineColour = new Color(100, 200, 80);
+        private final Color axisColour = new Color(150, 150, 150);
+        private final Color totalColour = new Color(255, 220, 100);
+        private final Color pileColour = new Color(139, 90, 43);
+        private final int peak;
+
+        // Reused between frames, resized with the panel
+        private int[] selected = new int[0];
+        private int[] xs = new int[0];
+        private int[] ys = new int[0];
+
+        public StoragePanel() {
+            setBackground(new Color(25, 35, 25));
+            int largest = 1;
+            for (int round = 1; round <= timeline.rounds(); round++) {
+                largest = Math.max(largest, timeline.removedInRound(round));
+            }
+            peak = largest;
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Graphics2D g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            int chartX = 20;
+            int chartY = 60;
+            int chartWidth = getWidth() - 40;
+            int chartHeight = getHeight() - 130;
+
+            // Draw total
+            g2d.setColor(totalColour);
+            g2d.setFont(totalFont);
+            g2d.drawString("Total: " + totalRemoved, 20, 25);
+
+            int shown = Math.min(iteration, timeline.rounds());
+            if (chartWidth > 0 && chartHeight > 0) {
+                // Axes, scaled to the largest round and the length of the whole run
+                g2d.setColor(axisColour);
+                g2d.drawLine(chartX, chartY, chartX, chartY + chartHeight);
+                g2d.drawLine(chartX, chartY + chartHeight, chartX + chartWidth, chartY + chartHeight);
+                g2d.setFont(labelFont);
+                g2d.drawString(String.valueOf(peak), chartX + 4, chartY - 4);
+                g2d.drawString("I" + shown, chartX, chartY + chartHeight + 15);
+
+                if (shown > 0) {
+                    if (selected.length != chartWidth) {
+                        selected = new int[chartWidth];
+                        xs = new int[chartWidth];
+                        ys = new int[chartWidth];
+                    }
+                    int points = timeline.downsample(shown, selected);
+                    int span = Math.max(1, timeline.rounds() - 1);
+                    for (int i = 0; i < points; i++) {
+                        int round = selected[i];
+                        xs[i] = chartX + (int) ((long) (round - 1) * chartWidth / span);
+                        ys[i] = chartY + chartHeight
+                                - (int) ((long) timeline.removedInRound(round) * chartHeight / peak);
+                    }
+                    g2d.setColor(lineColour);
+                    g2d.drawPolyline(xs, ys, points);
+                }
+            }
+
+            // Draw pile visualization at bottom
+            int pileHeight = Math.min(totalRemoved / 50, 40);
+            g2d.setColor(pileColour);
+            g2d.fillRoundRect(20, getHeight() - 30 - pileHeight, Math.max(0, getWidth() - 40), pileHeight, 10, 10);
+        }
+    }
+}
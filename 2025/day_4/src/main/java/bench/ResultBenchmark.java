@@ -0,0 +1,158 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for the Day 4 solver entry points that {@code Result}
+ * actually runs: parsing, part 1, part 2 through the removal timeline, and
+ * both parts on a memory-mapped snapshot. Grids are seeded and synthetic.
+ *
+ * Build with {@code mvn package} and run {@code java -jar target/benchmarks.jar}.
+ * Any JMH option can be passed, e.g. {@code -p size=1000 -p density=0.7};
+ * the gc profiler is always added so allocation rates are reported.
+ *
+ * The harness was added after the worklist, bitboard, parallel, mapped
+ * input and streaming changes, so it has never measured the original
+ * rescanning solver and gives no before/after figures for those changes.
+ *
+ * JMH refuses benchmarks in the default package, and named packages cannot
+ * refer to the solver classes directly, so their members are bound once
+ * through method handles. Static final handles are constant-folded by the JIT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ResultBenchmark {
+
+    private static final MethodHandle GENERATE = bind("GridGenerator", "random",
+            int.class, int.class, double.class, long.class);
+    private static final MethodHandle PARSE = bind("GridInput", "of", ByteBuffer.class);
+    private static final MethodHandle PACK = bind("Bitboard", "from", "GridInput");
+    private static final MethodHandle WRITE_SNAPSHOT = bind("GridSnapshot", "write", "GridInput", Path.class);
+    private static final MethodHandle MAP_SNAPSHOT = bind("GridSnapshot", "map", Path.class);
+    private static final MethodHandle SNAPSHOT_PART_1 = bind("GridSnapshot", "countAccessible");
+    private static final MethodHandle SNAPSHOT_PART_2 = bind("GridSnapshot", "removeAll");
+    private static final MethodHandle SOL_PART_1 = bind("Result", "solPart1", "GridInput");
+    private static final MethodHandle TIMELINE = bind("RemovalTimeline", "compute", "GridInput");
+
+    @Param({"1000", "5000", "20000"})
+    public int size;
+
+    @Param({"0.3", "0.6", "0.9"})
+    public double density;
+
+    @Param("2025")
+    public long seed;
+
+    private byte[] text;
+    private Object input;
+    private Path snapshotFile;
+    private Object snapshot;
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(ResultBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        text = (byte[]) (Object) GENERATE.invokeExact(size, size, density, seed);
+        input = (Object) PARSE.invokeExact((Object) ByteBuffer.wrap(text));
+        snapshotFile = Files.createTempFile("day4-benchmark", ".snapshot");
+        WRITE_SNAPSHOT.invokeExact(input, (Object) snapshotFile);
+        snapshot = (Object) MAP_SNAPSHOT.invokeExact((Object) snapshotFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        snapshot = null;
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    @Benchmark
+    public Object parseInput() throws Throwable {
+        return (Object) PARSE.invokeExact((Object) ByteBuffer.wrap(text));
+    }
+
+    @Benchmark
+    public int solPart1() throws Throwable {
+        return (int) SOL_PART_1.invokeExact(input);
+    }
+
+    /**
+     * Part 2 as the default mode computes it, together with the per-round
+     * record the visualization replays.
+     */
+    @Benchmark
+    public Object removalTimeline() throws Throwable {
+        return (Object) TIMELINE.invokeExact(input);
+    }
+
+    @Benchmark
+    public Object packBitboard() throws Throwable {
+        return (Object) PACK.invokeExact(input);
+    }
+
+    /**
+     * Loading a snapshot as the snapshot mode does, verifying its checksum.
+     */
+    @Benchmark
+    public Object mapSnapshot() throws Throwable {
+        return (Object) MAP_SNAPSHOT.invokeExact((Object) snapshotFile);
+    }
+
+    @Benchmark
+    public int snapshotPart1() throws Throwable {
+        return (int) SNAPSHOT_PART_1.invokeExact(snapshot);
+    }
+
+    /**
+     * Part 2 as the snapshot mode computes it, including the copy of the
+     * mapped rows onto the heap that peeling needs.
+     */
+    @Benchmark
+    public int snapshotPart2() throws Throwable {
+        return (int) SNAPSHOT_PART_2.invokeExact(snapshot);
+    }
+
+    /**
+     * Looks up a method of a solver class, with every reference type
+     * in its signature erased to {@code Object}. Parameter types are given as
+     * classes or as binary class names.
+     */
+    private static MethodHandle bind(String owner, String name, Object... parameterTypes) {
+        try {
+            Class<?>[] types = new Class<?>[parameterTypes.length];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = parameterTypes[i] instanceof Class<?> type
+                        ? type
+                        : Class.forName((String) parameterTypes[i]);
+            }
+            Method method = Class.forName(owner).getDeclaredMethod(name, types);
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            return handle.asType(handle.type().erase());
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
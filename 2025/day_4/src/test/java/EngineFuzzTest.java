@@ -0,0 +1,309 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential fuzz test for the solver engines. Every engine is run on
+ * seeded generated grids and compared with a deliberately plain
+ * reference: synchronous rounds over a character grid, counting
+ * neighbours with {@link Result#countAdjacentRolls(char[][], int, int)}.
+ * Both answers are compared, and so is the number of rolls each engine
+ * reports removing in every round. The incremental solver also gets a
+ * series of random edits. {@link RuleSolver} is also run under rules
+ * other than the puzzle's and compared with a brute-force count over
+ * every neighbour offset.
+ *
+ * Run more cases or another seed with {@code -Dday4.fuzz.cases=1000
+ * -Dday4.fuzz.seed=7}; every mismatch names the layout, size, density
+ * and seed needed to rebuild its grid.
+ */
+class EngineFuzzTest {
+
+    private static final int CASES = Integer.getInteger("day4.fuzz.cases", 96);
+    private static final long SEED = Long.getLong("day4.fuzz.seed", 2025);
+    private static final int SMALL_GRID = 64;
+    private static final int LARGE_GRID = 200;
+    private static final int EDITS = 24;
+    private static final int RULE_GRID = 40;
+    private static final List<String> RULES = List.of(
+            "threshold=1",
+            "threshold=9",
+            "moore,edge=filled",
+            "moore,radius=2,threshold=12",
+            "moore,radius=3,threshold=20,edge=wrap",
+            "von-neumann,threshold=3",
+            "von-neumann,radius=2,threshold=6,edge=filled",
+            "von-neumann,radius=3,threshold=10,edge=wrap",
+            "von-neumann,radius=6,threshold=40,edge=wrap");
+
+    private static Engines engines;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        engines = new Engines();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        engines.close();
+    }
+
+    @Test
+    void referenceSolvesPuzzleExample() {
+        String example = """
+                ..@@.@@@@.
+                @@@.@.@.@@
+                @@@@@.@.@@
+                @.@@@@..@.
+                @@.@@@@.@@
+                .@@@@@@@.@
+                .@.@.@.@@@
+                @.@@@.@@@@
+                .@@@@@@@@.
+                @.@.@@@.@.
+                """;
+        GridInput input = GridInput.of(ByteBuffer.wrap(example.getBytes(StandardCharsets.US_ASCII)));
+        assertArrayEquals(new int[] {13, 43}, answers(referenceRounds(input.toCharGrid())));
+    }
+
+    /**
+     * Checks every engine on generated grids, cycling through the layouts.
+     * Worker processes are slow to start, so the cluster only sees each
+     * layout once.
+     */
+    @Test
+    void enginesAgreeWithReference() throws Exception {
+        SplittableRandom random = new SplittableRandom(SEED);
+        GridLayout[] layouts = GridLayout.values();
+        List<String> mismatches = new ArrayList<>();
+        for (int i = 0; i < CASES; i++) {
+            GridLayout layout = layouts[i % layouts.length];
+            int limit = i % 4 == 3 ? LARGE_GRID : SMALL_GRID;
+            int rows = random.nextInt(8) == 0 ? 1 : 1 + random.nextInt(limit);
+            int cols = random.nextInt(8) == 0 ? 1 : 1 + random.nextInt(limit);
+            double density = random.nextDouble();
+            long caseSeed = random.nextLong();
+            String label = String.format(Locale.ROOT, "case %d: %s %dx%d density=%.4f seed=%d",
+                    i, layout, rows, cols, density, caseSeed);
+            byte[] text = layout.generate(rows, cols, density, caseSeed);
+            check(text, label, i < layouts.length, random.split(), mismatches);
+        }
+        assertTrue(mismatches.isEmpty(),
+                () -> mismatches.size() + " mismatches:\n" + String.join("\n", mismatches));
+    }
+
+    /**
+     * Solves generated grids under rules that exercise every shape and
+     * edge, radii beyond the smallest grids, and thresholds other than 4.
+     */
+    @Test
+    void ruleSolverAgreesWithBruteForce() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        GridLayout[] layouts = GridLayout.values();
+        List<String> mismatches = new ArrayList<>();
+        for (int i = 0; i < CASES / 4; i++) {
+            GridLayout layout = layouts[i % layouts.length];
+            int rows = 1 + random.nextInt(RULE_GRID);
+            int cols = 1 + random.nextInt(RULE_GRID);
+            double density = random.nextDouble();
+            long caseSeed = random.nextLong();
+            String label = String.format(Locale.ROOT, "case %d: %s %dx%d density=%.4f seed=%d",
+                    i, layout, rows, cols, density, caseSeed);
+            GridInput input = GridInput.of(ByteBuffer.wrap(layout.generate(rows, cols, density, caseSeed)));
+            for (String spec : RULES) {
+                Rule rule = Rule.parse(spec);
+                int[] expected = answers(referenceRounds(input.toCharGrid(), rule));
+                int[] actual = {new RuleSolver(input, rule).countAccessible(), new RuleSolver(input, rule).removeAll()};
+                if (!Arrays.equals(actual, expected)) {
+                    mismatches.add(String.format("rule %s %s: %d/%d, expected %d/%d",
+                            spec, label, actual[0], actual[1], expected[0], expected[1]));
+                }
+            }
+        }
+        assertTrue(mismatches.isEmpty(),
+                () -> mismatches.size() + " mismatches:\n" + String.join("\n", mismatches));
+    }
+
+    private static void check(byte[] text, String label, boolean cluster, SplittableRandom random,
+            List<String> mismatches) throws Exception {
+        GridInput input = GridInput.of(ByteBuffer.wrap(text));
+        Path file = engines.scratch.resolve("grid.txt");
+        Files.write(file, text);
+        int[] rounds = referenceRounds(input.toCharGrid());
+        int[] expected = answers(rounds);
+
+        List<Engines.Engine> checked = new ArrayList<>(engines.all());
+        if (cluster) {
+            checked.add(Engines.cluster(2 + random.nextInt(2)));
+        }
+        for (Engines.Engine engine : checked) {
+            int[][] actual = new int[1][];
+            int[] reported;
+            try {
+                if (engine.rounds() == null) {
+                    actual[0] = engine.solve().solve(input, file);
+                    reported = rounds;
+                } else {
+                    reported = RoundRecorder.rounds(engine.rounds(),
+                            () -> actual[0] = engine.solve().solve(input, file));
+                }
+            } catch (Exception | AssertionError e) {
+                mismatches.add(String.format("%s %s: threw %s", engine.name(), label, e));
+                continue;
+            }
+            if (!Arrays.equals(actual[0], expected)) {
+                mismatches.add(String.format("%s %s: %d/%d, expected %d/%d",
+                        engine.name(), label, actual[0][0], actual[0][1], expected[0], expected[1]));
+            } else if (!Arrays.equals(reported, rounds)) {
+                mismatches.add(String.format("%s %s: rounds %s, expected %s",
+                        engine.name(), label, Arrays.toString(reported), Arrays.toString(rounds)));
+            }
+        }
+        checkEdits(input, label, random, mismatches);
+    }
+
+    /**
+     * Applies random additions and removals to an incremental solver, and
+     * every few edits compares it with a fresh reference solve.
+     */
+    private static void checkEdits(GridInput input, String label, SplittableRandom random,
+            List<String> mismatches) {
+        if (input.rows == 0 || input.cols == 0) {
+            return;
+        }
+        IncrementalSolver solver = new IncrementalSolver(input);
+        char[][] grid = input.toCharGrid();
+        for (int edit = 1; edit <= EDITS; edit++) {
+            int row = random.nextInt(input.rows);
+            int col = random.nextInt(input.cols);
+            if (grid[row][col] == '@') {
+                solver.removeRoll(row, col);
+                grid[row][col] = '.';
+            } else {
+                solver.addRoll(row, col);
+                grid[row][col] = '@';
+            }
+            if (edit % 6 == 0) {
+                char[][] copy = new char[grid.length][];
+                for (int r = 0; r < grid.length; r++) {
+                    copy[r] = grid[r].clone();
+                }
+                int[] expected = answers(referenceRounds(copy));
+                if (solver.part1() != expected[0] || solver.part2() != expected[1]) {
+                    mismatches.add(String.format("incremental %s after %d edits: %d/%d, expected %d/%d",
+                            label, edit, solver.part1(), solver.part2(), expected[0], expected[1]));
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every accessible roll at once, round after round, the way
+     * the puzzle describes it.
+     *
+     * @param grid the grid to solve, overwritten
+     * @return the number of rolls removed in each round
+     */
+    static int[] referenceRounds(char[][] grid) {
+        int[] rounds = new int[16];
+        int count = 0;
+        List<int[]> accessible = new ArrayList<>();
+        while (true) {
+            accessible.clear();
+            for (int row = 0; row < grid.length; row++) {
+                for (int col = 0; col < grid[row].length; col++) {
+                    if (grid[row][col] == '@' && Result.countAdjacentRolls(grid, row, col) < 4) {
+                        accessible.add(new int[] {row, col});
+                    }
+                }
+            }
+            if (accessible.isEmpty()) {
+                return Arrays.copyOf(rounds, count);
+            }
+            for (int[] cell : accessible) {
+                grid[cell[0]][cell[1]] = 'x';
+            }
+            if (count == rounds.length) {
+                rounds = Arrays.copyOf(rounds, count * 2);
+            }
+            rounds[count++] = accessible.size();
+        }
+    }
+
+    /**
+     * Like {@link #referenceRounds(char[][])}, but counts the neighbours
+     * of every roll by visiting each offset of the rule. Wrapping reduces
+     * every offset modulo the grid size, so on grids smaller than the
+     * neighbourhood a roll can see the same cell, itself included, more
+     * than once.
+     */
+    static int[] referenceRounds(char[][] grid, Rule rule) {
+        int rows = grid.length;
+        int cols = grid[0].length;
+        int reach = rule.radius();
+        int[] rounds = new int[16];
+        int count = 0;
+        List<int[]> accessible = new ArrayList<>();
+        while (true) {
+            accessible.clear();
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    if (grid[row][col] != '@') {
+                        continue;
+                    }
+                    int neighbours = 0;
+                    for (int dr = -reach; dr <= reach; dr++) {
+                        for (int dc = -reach; dc <= reach; dc++) {
+                            if (!rule.contains(dr, dc)) {
+                                continue;
+                            }
+                            int r = row + dr;
+                            int c = col + dc;
+                            if (rule.edge() == Rule.Edge.WRAP) {
+                                neighbours += grid[Math.floorMod(r, rows)][Math.floorMod(c, cols)] == '@' ? 1 : 0;
+                            } else if (r < 0 || r >= rows || c < 0 || c >= cols) {
+                                neighbours += rule.edge() == Rule.Edge.FILLED ? 1 : 0;
+                            } else {
+                                neighbours += grid[r][c] == '@' ? 1 : 0;
+                            }
+                        }
+                    }
+                    if (neighbours < rule.threshold()) {
+                        accessible.add(new int[] {row, col});
+                    }
+                }
+            }
+            if (accessible.isEmpty()) {
+                return Arrays.copyOf(rounds, count);
+            }
+            for (int[] cell : accessible) {
+                grid[cell[0]][cell[1]] = 'x';
+            }
+            if (count == rounds.length) {
+                rounds = Arrays.copyOf(rounds, count * 2);
+            }
+            rounds[count++] = accessible.size();
+        }
+    }
+
+    static int[] answers(int[] rounds) {
+        int total = 0;
+        for (int removed : rounds) {
+            total += removed;
+        }
+        return new int[] {rounds.length == 0 ? 0 : rounds[0], total};
+    }
+}
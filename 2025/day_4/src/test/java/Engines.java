@@ -0,0 +1,121 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Every in-process solver engine, bound to a common signature so the
+ * tests can run them side by side. Engines that read files get the same
+ * grid written to disk.
+ */
+final class Engines implements AutoCloseable {
+
+    /**
+     * One engine under test.
+     *
+     * @param name the engine's name in test output
+     * @param rounds the name it reports its rounds under through
+     *     {@link Metrics#round}, or null if it reports none
+     * @param solve runs both parts
+     */
+    record Engine(String name, String rounds, Solve solve) {
+    }
+
+    /**
+     * Solves both parts of a grid.
+     */
+    interface Solve {
+        int[] solve(GridInput input, Path file) throws IOException, InterruptedException;
+    }
+
+    final Path scratch;
+    private final ParallelSolver parallel;
+    private final List<Engine> engines = new ArrayList<>();
+
+    Engines() throws IOException {
+        this.scratch = Files.createTempDirectory("day4-engines");
+        // Narrow bands, so even small grids are split between tasks
+        this.parallel = new ParallelSolver(Runtime.getRuntime().availableProcessors(), 8);
+        AccessibilityKernel kernel = ByteGridSolver.loadKernel();
+
+        add("solPart", "part2", (input, file) -> new int[] {Result.solPart1(input), Result.solPart2(input)});
+        add("parallel", "parallel", (input, file) -> new int[] {
+                parallel.countAccessible(Bitboard.from(input)), parallel.removeAll(Bitboard.from(input))});
+        add("stream", "stream", (input, file) -> new int[] {
+                StreamingSolver.countAccessible(file), StreamingSolver.removeAll(file)});
+        add("simd", "simd", (input, file) -> new int[] {
+                new ByteGridSolver(input, kernel).countAccessible(),
+                new ByteGridSolver(input, kernel).removeAll()});
+        add("scalar", "simd", (input, file) -> new int[] {
+                new ByteGridSolver(input, new ScalarKernel()).countAccessible(),
+                new ByteGridSolver(input, new ScalarKernel()).removeAll()});
+        add("sparse", "sparse", (input, file) -> new int[] {
+                TiledGrid.from(input).countAccessible(), TiledGrid.from(input).removeAll()});
+        add("timeline", "timeline", (input, file) -> {
+            RemovalTimeline timeline = RemovalTimeline.compute(input);
+            return new int[] {timeline.removedInRound(1), timeline.totalRemoved()};
+        });
+        add("rule", "rule", (input, file) -> new int[] {
+                new RuleSolver(input, Rule.PUZZLE).countAccessible(),
+                new RuleSolver(input, Rule.PUZZLE).removeAll()});
+        add("incremental", null, (input, file) -> {
+            IncrementalSolver solver = new IncrementalSolver(input);
+            return new int[] {solver.part1(), solver.part2()};
+        });
+        add("snapshot", "snapshot", (input, file) -> {
+            Path snapshot = scratch.resolve("grid.snapshot");
+            GridSnapshot.write(input, snapshot);
+            GridSnapshot loaded = GridSnapshot.map(snapshot);
+            return new int[] {loaded.countAccessible(), loaded.removeAll()};
+        });
+        add("batch", null, (input, file) -> {
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            if (new BatchSolver(1, new PrintStream(json, true, StandardCharsets.UTF_8)).run(file.toString()) > 0) {
+                throw new IllegalStateException(json.toString(StandardCharsets.UTF_8).trim());
+            }
+            String line = json.toString(StandardCharsets.UTF_8);
+            return new int[] {jsonInt(line, "part1"), jsonInt(line, "part2")};
+        });
+    }
+
+    private void add(String name, String rounds, Solve solve) {
+        engines.add(new Engine(name, rounds, solve));
+    }
+
+    List<Engine> all() {
+        return engines;
+    }
+
+    /**
+     * The multi-process engine, which starts worker JVMs and so is kept out
+     * of {@link #all()}.
+     */
+    static Engine cluster(int workers) {
+        return new Engine("cluster", "cluster", (input, file) -> StripeCluster.coordinate(file, workers));
+    }
+
+    private static int jsonInt(String json, String key) {
+        int start = json.indexOf("\"" + key + "\":") + key.length() + 3;
+        int end = start;
+        while (end < json.length() && Character.isDigit(json.charAt(end))) {
+            end++;
+        }
+        return Integer.parseInt(json.substring(start, end));
+    }
+
+    @Override
+    public void close() throws IOException {
+        parallel.close();
+        try (Stream<Path> files = Files.list(scratch)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(scratch);
+    }
+}
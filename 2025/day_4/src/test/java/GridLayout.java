@@ -0,0 +1,103 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Grid layouts for fuzzing, chosen to stress edge cases of the solvers
+ * rather than to look like puzzle input.
+ */
+enum GridLayout {
+    /** Independent cells, like {@link GridGenerator#random}. */
+    RANDOM,
+    /** Every cell a roll: only the corners start accessible. */
+    SOLID,
+    /** Alternating cells, where every roll has at most 4 neighbours. */
+    CHECKERBOARD,
+    /** Two full rows out of every three. */
+    STRIPES,
+    /** Solid rectangles scattered over an empty floor. */
+    BLOCKS,
+    /** A thick diagonal band that peels from its ends over many rounds. */
+    DIAGONAL,
+    /** Random cells on lines of random length, shorter than the widest. */
+    RAGGED,
+    /** No rolls at all. */
+    EMPTY;
+
+    /**
+     * Generates a grid with this layout. Only {@link #RANDOM} and
+     * {@link #RAGGED} use the density; the seed drives every random choice.
+     *
+     * @return the grid as text with "\n" line endings
+     */
+    byte[] generate(int rows, int cols, double density, long seed) {
+        if (this == RANDOM) {
+            return GridGenerator.random(rows, cols, density, seed);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        boolean[][] rolls = new boolean[rows][cols];
+        int[] lengths = new int[rows];
+        Arrays.fill(lengths, cols);
+        switch (this) {
+            case SOLID -> {
+                for (boolean[] row : rolls) {
+                    Arrays.fill(row, true);
+                }
+            }
+            case CHECKERBOARD -> {
+                for (int row = 0; row < rows; row++) {
+                    for (int col = row & 1; col < cols; col += 2) {
+                        rolls[row][col] = true;
+                    }
+                }
+            }
+            case STRIPES -> {
+                for (int row = 0; row < rows; row++) {
+                    Arrays.fill(rolls[row], row % 3 != 2);
+                }
+            }
+            case BLOCKS -> {
+                int blocks = 1 + random.nextInt(1 + rows * cols / 64);
+                for (int i = 0; i < blocks; i++) {
+                    int top = random.nextInt(rows);
+                    int left = random.nextInt(cols);
+                    int bottom = Math.min(rows, top + 1 + random.nextInt(12));
+                    int right = Math.min(cols, left + 1 + random.nextInt(12));
+                    for (int row = top; row < bottom; row++) {
+                        Arrays.fill(rolls[row], left, right, true);
+                    }
+                }
+            }
+            case DIAGONAL -> {
+                int width = 1 + random.nextInt(3);
+                for (int row = 0; row < rows; row++) {
+                    for (int col = Math.max(0, row - width); col <= Math.min(cols - 1, row + width); col++) {
+                        rolls[row][col] = true;
+                    }
+                }
+            }
+            case RAGGED -> {
+                for (int row = 0; row < rows; row++) {
+                    lengths[row] = random.nextInt(cols + 1);
+                    for (int col = 0; col < lengths[row]; col++) {
+                        rolls[row][col] = random.nextDouble() < density;
+                    }
+                }
+                // Keep the width: the widest line sets the column count
+                lengths[random.nextInt(rows)] = cols;
+            }
+            default -> {
+                // EMPTY
+            }
+        }
+
+        byte[] text = new byte[rows * (cols + 1)];
+        int index = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < lengths[row]; col++) {
+                text[index++] = rolls[row][col] ? (byte) '@' : (byte) '.';
+            }
+            text[index++] = '\n';
+        }
+        return Arrays.copyOf(text, index);
+    }
+}
@@ -0,0 +1,67 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Captures the per-round removal counts an engine publishes through
+ * {@link Metrics#round}, by recording its {@code RemovalRound} events with
+ * Flight Recorder while the engine runs. The engines need no test hooks:
+ * this is the same instrumentation a production recording sees.
+ */
+final class RoundRecorder {
+
+    private static final String EVENT = "aoc.day4.RemovalRound";
+
+    private RoundRecorder() {
+    }
+
+    /**
+     * Runs the given work under a recording.
+     *
+     * @param engine the engine name the rounds are reported under
+     * @param work the solve to observe
+     * @return the number of rolls removed in each round, in round order
+     */
+    static int[] rounds(String engine, Work work) throws Exception {
+        Path dump = Files.createTempFile("day4-rounds", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable(EVENT).withoutStackTrace();
+                recording.start();
+                work.run();
+                recording.stop();
+                recording.dump(dump);
+            }
+            int[] removed = new int[16];
+            int rounds = 0;
+            for (RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+                if (!event.getString("engine").equals(engine)) {
+                    continue;
+                }
+                int round = event.getInt("round");
+                if (round > removed.length) {
+                    removed = Arrays.copyOf(removed, Math.max(round, removed.length * 2));
+                }
+                if (removed[round - 1] != 0) {
+                    throw new IllegalStateException(engine + " reported round " + round + " twice");
+                }
+                removed[round - 1] = event.getInt("removed");
+                rounds = Math.max(rounds, round);
+            }
+            return Arrays.copyOf(removed, rounds);
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    /**
+     * A solve whose rounds are recorded.
+     */
+    interface Work {
+        void run() throws Exception;
+    }
+}
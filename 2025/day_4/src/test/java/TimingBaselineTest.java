@@ -0,0 +1,98 @@
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Times every in-process engine on one fixed grid and compares the best
+ * of several runs with the baseline in {@code timing-baseline.properties}.
+ * An engine fails once it is more than {@code day4.tolerance} times (1.5
+ * by default) slower than its stored time, unless it is within a
+ * millisecond of it.
+ *
+ * The times are absolute and were taken on one machine, so a slower or
+ * busier machine would fail for reasons unrelated to the code. The test
+ * therefore only runs with {@code -Dday4.timing=true}, on the machine the
+ * baseline was written on. After a deliberate change in speed, or to
+ * baseline a different machine, rewrite the file with {@code mvn test
+ * -Dtest=TimingBaselineTest -Dday4.timing=true
+ * -Dday4.writeBaseline=src/test/resources/timing-baseline.properties}.
+ */
+@EnabledIfSystemProperty(named = "day4.timing", matches = "true")
+class TimingBaselineTest {
+
+    static final int BENCHMARK_SIZE = 1000;
+    private static final int WARMUP_RUNS = 5;
+    private static final int TIMED_RUNS = 10;
+    // Timings this close to the baseline are never flagged, whatever the ratio
+    private static final double SLACK_MILLIS = 1.0;
+
+    @Test
+    void enginesKeepUpWithBaseline() throws Exception {
+        double tolerance = Double.parseDouble(System.getProperty("day4.tolerance", "1.5"));
+        String writeBaseline = System.getProperty("day4.writeBaseline");
+        Properties baseline = new Properties();
+        try (InputStream in = TimingBaselineTest.class.getResourceAsStream("/timing-baseline.properties")) {
+            if (writeBaseline == null) {
+                assertNotNull(in, "timing-baseline.properties is missing");
+            }
+            if (in != null) {
+                baseline.load(in);
+            }
+        }
+
+        byte[] text = GridGenerator.random(BENCHMARK_SIZE, BENCHMARK_SIZE, 0.6, 2025);
+        GridInput input = GridInput.of(ByteBuffer.wrap(text));
+        Properties measured = new Properties();
+        List<String> regressions = new ArrayList<>();
+        try (Engines engines = new Engines()) {
+            Path file = engines.scratch.resolve("benchmark.txt");
+            Files.write(file, text);
+            for (Engines.Engine engine : engines.all()) {
+                // Start each engine without the previous one's garbage
+                System.gc();
+                for (int run = 0; run < WARMUP_RUNS; run++) {
+                    engine.solve().solve(input, file);
+                }
+                long best = Long.MAX_VALUE;
+                for (int run = 0; run < TIMED_RUNS; run++) {
+                    long start = System.nanoTime();
+                    engine.solve().solve(input, file);
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                double millis = best / 1e6;
+                measured.setProperty(engine.name(), String.format(Locale.ROOT, "%.3f", millis));
+
+                String stored = baseline.getProperty(engine.name());
+                if (stored == null) {
+                    regressions.add(engine.name() + " has no baseline");
+                    continue;
+                }
+                double storedMillis = Double.parseDouble(stored);
+                if (millis > storedMillis * tolerance && millis - storedMillis > SLACK_MILLIS) {
+                    regressions.add(String.format(Locale.ROOT, "%s took %.3f ms, baseline %.3f ms",
+                            engine.name(), millis, storedMillis));
+                }
+            }
+        }
+
+        if (writeBaseline != null) {
+            try (OutputStream out = Files.newOutputStream(Path.of(writeBaseline))) {
+                measured.store(out, "Best of " + TIMED_RUNS + " runs in milliseconds on a "
+                        + BENCHMARK_SIZE + "x" + BENCHMARK_SIZE + " grid, see TimingBaselineTest");
+            }
+            return;
+        }
+        assertTrue(regressions.isEmpty(), () -> "Slower than baseline:\n" + String.join("\n", regressions));
+    }
+}